@@ -1,32 +1,269 @@
 package com.fractured;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Scanner;
 
+import com.fractured.bench.SaveBench;
+import com.fractured.bench.SanityBench;
+import com.fractured.bench.SnapshotBench;
 import com.fractured.core.ChoiceScene;
 import com.fractured.core.DialogueScene;
 import com.fractured.core.GameEngine;
 import com.fractured.core.GameState;
+import com.fractured.core.Pacing;
+import com.fractured.core.SceneOutput;
 import com.fractured.db.DBUtil;
+import com.fractured.db.FileSaveStore;
+import com.fractured.db.SaveCodecCheck;
+import com.fractured.db.SaveCompactor;
 import com.fractured.db.SaveDAO;
+import com.fractured.db.SaveJournal;
+import com.fractured.db.SaveStore;
+import com.fractured.db.SaveTransfer;
 import com.fractured.model.Player;
+import com.fractured.sim.BranchExplorer;
+import com.fractured.sim.ChoicePolicy;
+import com.fractured.sim.Simulator;
+import com.fractured.story.StoryBundle;
+import com.fractured.story.StoryLibrary;
+import com.fractured.ui.LoadMenu;
 
 public class Main {
+    /** What a command-line flag does instead of starting a game; gets the whole command line. */
+    @FunctionalInterface
+    private interface Command {
+        void run(String[] args);
+    }
+
+    /** A benchmark: returns the report to print. */
+    @FunctionalInterface
+    private interface Bench {
+        String run(String[] args) throws Exception;
+    }
+
+    // first argument -> mode; anything else starts the game
+    private static final Map<String, Command> COMMANDS = new LinkedHashMap<>();
+
+    static {
+        COMMANDS.put("--simulate", Main::simulate);
+        COMMANDS.put("--explore", Main::explore);
+        COMMANDS.put("--build-bundle", Main::buildBundle);
+        COMMANDS.put("--export-saves", Main::transferSaves);
+        COMMANDS.put("--import-saves", Main::transferSaves);
+        COMMANDS.put("--journal", args -> printJournal(args.length > 1 ? args[1] : "Elias"));
+        COMMANDS.put("--reindex-story", Main::reindexStory);
+        COMMANDS.put("--check-codec", Main::checkCodec);
+
+        bench("--bench-sanity", "Sanity benchmark", args -> SanityBench.run(intArg(args, 1, 4), intArg(args, 2, 1_000_000)));
+        bench("--bench-snapshots", "Snapshot benchmark", args -> SnapshotBench.run(intArg(args, 1, 1_000_000)));
+        bench("--bench-saves", "Save benchmark", args -> SaveBench.run(intArg(args, 1, 2_000)));
+        bench("--bench-group-commit", "Group commit benchmark",
+                args -> SaveBench.groupCommit(intArg(args, 1, 32), intArg(args, 2, 200), 0, 1, 2, 5, 10, 20));
+        bench("--bench-retention", "Retention benchmark", args -> SaveBench.retention(intArg(args, 1, 50_000)));
+        bench("--bench-lookup", "Lookup benchmark", args -> SaveBench.lookup(intArg(args, 1, 1_000_000)));
+        bench("--bench-codec", "Codec benchmark", args -> SaveBench.codec(intArg(args, 1, 200_000)));
+        bench("--bench-journal", "Journal benchmark", args -> SaveBench.journal(intArg(args, 1, 5_000)));
+        bench("--bench-stores", "Store benchmark", args -> SaveBench.stores(intArg(args, 1, 20_000), intArg(args, 2, 4)));
+        bench("--bench-save-log", "Save log benchmark", args -> SaveBench.saveLog(intArg(args, 1, 1_000_000)));
+        bench("--bench-reconnect", "Reconnect benchmark",
+                args -> SaveBench.reconnect(intArg(args, 1, 20_000), intArg(args, 2, 8)));
+        bench("--bench-transfer", "Transfer benchmark", args -> SaveBench.transfer(intArg(args, 1, 1_000_000)));
+        bench("--bench-listing", "Listing benchmark", args -> SaveBench.listing(intArg(args, 1, 200_000)));
+    }
+
+    private static void bench(String flag, String what, Bench bench) {
+        COMMANDS.put(flag, args -> {
+            try {
+                System.out.print(bench.run(args));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                System.err.println(what + " failed: " + e.getMessage());
+            }
+        });
+    }
+
+    private static int intArg(String[] args, int i, int fallback) {
+        return args.length > i ? Integer.parseInt(args[i]) : fallback;
+    }
+
     public static void main(String[] args) {
-        // init DB
-        DBUtil.initializeSchema();
-       
-        SaveDAO dao = new SaveDAO(new DBUtil());
+        Command command = args.length > 0 ? COMMANDS.get(args[0]) : null;
+        if (command != null) {
+            command.run(args);
+            return;
+        }
+
+        // where saves go: -Dfractured.store=sqlite|memory|file, file segments in -Dfractured.saveDir
+        String backend = System.getProperty("fractured.store", "sqlite");
+        DBUtil db = null;
+        SaveDAO dao = null;
+        SaveCompactor compactor = null;
+        SaveStore store;
+        if (backend.equalsIgnoreCase("sqlite")) {
+            // init DB
+            db = new DBUtil();
+            db.initializeSchema();
+
+            dao = new SaveDAO(db);
+            // group commit for saves: -Dfractured.saveWindowMs=N collects saves for N ms per transaction
+            String window = System.getProperty("fractured.saveWindowMs");
+            if (window != null) dao.enableBatching(Long.parseLong(window), SaveDAO.DEFAULT_MAX_BATCH);
+            // latest save per player kept in memory: -Dfractured.saveCache=N players, 0 for none
+            dao.enableCache(Integer.getInteger("fractured.saveCache", SaveDAO.DEFAULT_CACHE_SIZE));
+            // prunes history beyond the slot depth and vacuums, off the game thread
+            compactor = new SaveCompactor(db, dao.getHistoryDepth());
+            compactor.start(Duration.ofMinutes(5));
+            store = dao;
+        } else {
+            try {
+                store = SaveStore.open(backend, null, Paths.get(System.getProperty("fractured.saveDir", "saves")));
+                // overwritten saves pile up in the segments until compacted
+                if (store instanceof FileSaveStore) ((FileSaveStore) store).startCompaction(Duration.ofMinutes(1));
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Cannot open save store: " + e.getMessage());
+                return;
+            }
+        }
 
         // create player & state
         Player p = new Player("Elias");
         p.getInventory().add("torch");
         GameState state = new GameState(p);
         state.setCurrentScene("intro");
+        // dialogue pacing: -Dfractured.pacing=instant|normal|slow
+        state.setPacing(Pacing.fromName(System.getProperty("fractured.pacing")));
 
         // create engine and scenes
-        GameEngine engine = new GameEngine(state, dao);
+        GameEngine engine = new GameEngine(state, store);
+        // -Dfractured.journal=true journals events instead of a full autosave per scene (SQLite only)
+        if (dao != null && Boolean.getBoolean("fractured.journal")) engine.setJournal(new SaveJournal(dao, db));
+        // -Dfractured.bundle=file plays a bundle made with --build-bundle
+        String bundle = System.getProperty("fractured.bundle");
+        if (bundle != null) {
+            try {
+                StoryBundle.open(Paths.get(bundle)).registerAll(engine);
+            } catch (IOException e) {
+                System.err.println("Cannot open bundle " + bundle + ": " + e.getMessage());
+                return;
+            }
+        } else {
+            StoryLibrary story = registerStory(engine);
+            // drop acts the player has long left behind
+            story.startEviction(Duration.ofMinutes(10));
+        }
+
+        // Ctrl-C skips the end of main, so flush pending autosaves from a hook too
+        DBUtil database = db;
+        SaveCompactor pruner = compactor;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            engine.close();
+            if (pruner != null) pruner.close();
+            store.close();
+            if (database != null) database.close();
+        }, "fractured-shutdown"));
+
+        try (Scanner in = new Scanner(System.in)) {
+            // offer to carry on from a save
+            if (dao != null) {
+                engine.freeze(); // scene titles for the menu come from the compiled graph
+                try {
+                    GameState saved = new LoadMenu(dao, engine, engine.getJournal(), in, System.out).choose(p.getName());
+                    if (saved != null) {
+                        state.restore(saved.snapshot());
+                        if (System.getProperty("fractured.pacing") == null) state.setPacing(saved.getPacing());
+                    }
+                } catch (SQLException e) {
+                    System.err.println("Cannot list saves, starting a new game: " + e.getMessage());
+                }
+            }
+
+            // start game
+            engine.start(in);
+        }
+        System.out.println("Game ended.");
+    }
 
+    /**
+     * Streams saves out of or into a database as NDJSON:
+     * --export-saves file [database], --import-saves file [database]
+     */
+    private static void transferSaves(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: " + args[0] + " <file.ndjson> [database file]");
+            return;
+        }
+        Path file = Paths.get(args[1]);
+        String url = "jdbc:sqlite:" + (args.length > 2 ? args[2] : "fractured.db");
+        try (DBUtil db = new DBUtil(url, 2)) {
+            db.initializeSchema();
+            SaveTransfer transfer = new SaveTransfer(db, System.out);
+            long rows = args[0].equals("--export-saves") ? transfer.exportTo(file) : transfer.importFrom(file);
+            System.out.println((args[0].equals("--export-saves") ? "Exported " : "Imported ") + rows + " save(s)");
+        } catch (IOException | SQLException e) {
+            System.err.println("Save transfer failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds the story index and checks the scripts: --reindex-story [dir]
+     */
+    private static void reindexStory(String[] args) {
+        Path dir = Paths.get(args.length > 1 ? args[1] : "main/resources/story");
+        try {
+            List<String> findings = StoryLibrary.reindex(dir);
+            System.out.println("Story check: " + (findings.isEmpty() ? "no findings" : findings.size() + " finding(s)"));
+            for (String f : findings) System.out.println("  " + f);
+        } catch (IOException e) {
+            System.err.println("Cannot reindex " + dir + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Round-trips saves through every SaveCodec form: --check-codec [random samples]
+     */
+    private static void checkCodec(String[] args) {
+        List<String> findings = SaveCodecCheck.run(intArg(args, 1, 10_000));
+        System.out.println("Codec check: " + (findings.isEmpty() ? "no findings" : findings.size() + " finding(s)"));
+        for (String f : findings) System.out.println("  " + f);
+        if (!findings.isEmpty()) System.exit(1);
+    }
+
+    /**
+     * Prints a player's journal and the state it restores to: --journal [player]
+     */
+    private static void printJournal(String player) {
+        try (DBUtil db = new DBUtil(); SaveDAO dao = new SaveDAO(db); SaveJournal journal = new SaveJournal(dao, db)) {
+            db.initializeSchema();
+            List<String> events = journal.history(player);
+            for (String e : events) System.out.println(e);
+            GameState state = journal.restore(player);
+            if (state == null) {
+                System.out.println("No journal for " + player);
+                return;
+            }
+            System.out.println(events.size() + " event(s); restores to " + state.getCurrentScene()
+                    + ", sanity " + state.getPlayer().getSanity() + ", inventory " + state.getPlayer().getInventory());
+        } catch (SQLException e) {
+            System.err.println("Cannot read journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Registers the opening scenes and all six acts.
+     *
+     * @return the library holding the acts that live in story files
+     */
+    static StoryLibrary registerStory(GameEngine engine) {
         engine.register(new DialogueScene("intro", "Black Room", new String[]{
                 "You wake up in a small dark room.",
                 "A voice whispers something you can't understand."
@@ -45,23 +282,84 @@ public class Main {
                 "Your voice echoes. Nothing answers."
         },"act1_end"));
 
-        com.fractured.acts.Act1Register.registerAct1(engine);
-       
-        com.fractured.acts.Act2Register.registerAct2(engine);
-
-        com.fractured.acts.Act3Register.registerAct3(engine);
+        // the acts are story files, each loaded when a session first gets there
+        StoryLibrary story = StoryLibrary.open("story");
+        story.registerAll(engine);
 
-        com.fractured.acts.Act4Register.registerAct4(engine);
+        return story;
+    }
 
-        com.fractured.acts.Act5Register.registerAct5(engine);
+    /**
+     * Compiles the registered story into a bundle and checks it reads back
+     * the same: --build-bundle [file]
+     */
+    private static void buildBundle(String[] args) {
+        Path file = Paths.get(args.length > 1 ? args[1] : "fractured.bundle");
+        GameEngine engine = new GameEngine(null);
+        registerStory(engine);
+        try {
+            StoryBundle.write(engine, file);
+            StoryBundle bundle = StoryBundle.open(file);
+            List<String> diffs = bundle.verify(engine);
+            System.out.println("Wrote " + bundle.size() + " scenes, " + bundle.mappedBytes() + " bytes to " + file);
+            if (diffs.isEmpty()) {
+                System.out.println("Round-trip check passed.");
+            } else {
+                System.out.println("Round-trip check FAILED:");
+                for (String d : diffs) System.out.println("  " + d);
+            }
+        } catch (IOException e) {
+            System.err.println("Cannot write bundle " + file + ": " + e.getMessage());
+        }
+    }
 
-        com.fractured.acts.Act6Register.registerAct6(engine);
+    /**
+     * Headless run: --simulate [playthroughs] [uniform|first|weighted] [seed]
+     */
+    private static void simulate(String[] args) {
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        String policyName = args.length > 2 ? args[2] : "uniform";
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42L;
 
+        ChoicePolicy policy;
+        switch (policyName) {
+            case "first":
+                policy = (decision, sceneId, options, st, rnd) -> 1;
+                break;
+            case "weighted":
+                // lean towards the first options, which tend to be the bold ones
+                policy = ChoicePolicy.weighted(4, 2, 1);
+                break;
+            default:
+                policy = ChoicePolicy.uniform();
+        }
 
+        GameEngine engine = new GameEngine(null);
+        registerStory(engine);
+        Simulator sim = new Simulator(engine, () -> {
+            Player p = new Player("Elias");
+            p.getInventory().add("torch");
+            GameState st = new GameState(p, SceneOutput.discarding());
+            st.setCurrentScene("intro");
+            st.setPacing(Pacing.INSTANT);
+            return st;
+        });
+        System.out.println(sim.run(runs, policy, seed));
+    }
 
+    /**
+     * Exhaustive branch search: --explore [maxDepth]
+     */
+    private static void explore(String[] args) {
+        GameEngine engine = new GameEngine(null);
+        registerStory(engine);
+        BranchExplorer explorer = new BranchExplorer(engine);
+        if (args.length > 1) explorer.setMaxDepth(Integer.parseInt(args[1]));
 
-        // start game
-        engine.start();
-        System.out.println("Game ended.");
+        Player p = new Player("Elias");
+        p.getInventory().add("torch");
+        GameState st = new GameState(p);
+        st.setCurrentScene("intro");
+        System.out.println(explorer.explore(st));
     }
 }
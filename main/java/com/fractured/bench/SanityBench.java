@@ -0,0 +1,75 @@
+package com.fractured.bench;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fractured.model.Player;
+import com.fractured.threads.Lapati;
+
+/**
+ * Rough contended-update benchmark: N threads hammer one player's sanity
+ * with small +/- deltas, once through {@link Player#modifySanity} (CAS)
+ * and once through the old path, a plain int under a shared monitor the
+ * way Lapati used to hold {@code synchronized (state)}. Both clamp the
+ * same way. Run with {@code --bench-sanity [threads] [ops per thread]}.
+ */
+public final class SanityBench {
+
+    private SanityBench() { }
+
+    // the old shape: unguarded int, callers lock something shared around it
+    private static final class LockedSanity {
+        int sanity = Player.MAX_SANITY;
+    }
+
+    public static String run(int threads, int ops) throws InterruptedException {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d threads x %,d updates%n", threads, ops));
+        for (int round = 0; round < 3; round++) { // first rounds warm up the JIT
+            Player p = new Player("bench");
+            AtomicLong notified = new AtomicLong();
+            p.subscribe((pl, from, to) -> notified.incrementAndGet());
+            long cas = time(threads, ops, d -> p.modifySanity(d));
+
+            LockedSanity locked = new LockedSanity();
+            Object monitor = new Object();
+            long sync = time(threads, ops, d -> {
+                synchronized (monitor) {
+                    locked.sanity = Math.max(Player.MIN_SANITY, Math.min(Player.MAX_SANITY, locked.sanity + d));
+                }
+            });
+            sb.append(String.format("  round %d: cas %s, synchronized %s, %,d changes notified%n",
+                    round + 1, rate(threads, ops, cas), rate(threads, ops, sync), notified.get()));
+        }
+        return sb.toString();
+    }
+
+    private interface Update { void apply(int delta); }
+
+    private static long time(int threads, int ops, Update u) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] ts = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            ts[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                // alternate +/- so sanity wanders around the middle instead of pinning at a bound
+                for (int i = 0; i < ops; i++) u.apply(((i + seed) & 1) == 0 ? 3 : -3);
+            }, "sanity-bench-" + t);
+            ts[t].start();
+        }
+        long t0 = System.nanoTime();
+        start.countDown();
+        for (Thread t : ts) t.join();
+        return System.nanoTime() - t0;
+    }
+
+    private static String rate(int threads, int ops, long nanos) {
+        double perSec = (double) threads * ops / (nanos / 1e9);
+        return String.format("%,.0f/s", perSec);
+    }
+}
@@ -0,0 +1,746 @@
+package com.fractured.bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.fractured.core.GameState;
+import com.fractured.core.StepStats;
+import com.fractured.db.DBUtil;
+import com.fractured.db.FileSaveStore;
+import com.fractured.db.SaveCodec;
+import com.fractured.db.SaveCompactor;
+import com.fractured.db.SaveDAO;
+import com.fractured.db.SaveEntry;
+import com.fractured.db.SaveJournal;
+import com.fractured.db.SaveStore;
+import com.fractured.db.SaveTransfer;
+import com.fractured.model.Player;
+
+/**
+ * Saves/sec through the old path (open a connection, prepare, insert,
+ * close, default rollback journal) against the pooled {@link DBUtil} with
+ * WAL and cached statements. Each side writes to its own throwaway
+ * database. Run with {@code --bench-saves [count]}.
+ *
+ * {@link #groupCommit} drives many sessions saving at once through
+ * {@link SaveDAO#saveAsync}, each waiting for its save before the next,
+ * and prints throughput against p99 latency per batch window. Run with
+ * {@code --bench-group-commit [sessions] [saves per session]}.
+ *
+ * {@link #retention} keeps a few players autosaving and shows that file
+ * size and {@link SaveDAO#loadLatestForPlayer} latency stay flat. Run with
+ * {@code --bench-retention [saves]}.
+ *
+ * {@link #lookup} times the latest-save lookup over a large table, first
+ * as the original unindexed query at schema v1 and then through the DAO
+ * after the remaining migrations. Run with {@code --bench-lookup [rows]}.
+ *
+ * {@link #codec} compares {@link SaveCodec} with the comma-joined inventory
+ * it replaced: payload bytes and encode/decode time. Run with
+ * {@code --bench-codec [iterations]}.
+ *
+ * {@link #journal} plays the same run of scenes through full autosaves and
+ * through {@link SaveJournal}, and compares bytes written to the WAL and
+ * the time to restore. Run with {@code --bench-journal [scenes]}.
+ *
+ * {@link #stores} puts the same load on every {@link SaveStore} backend:
+ * save and load throughput with median and tail latency. Run with
+ * {@code --bench-stores [saves per thread] [threads]}.
+ *
+ * {@link #saveLog} runs heavy autosave traffic into a {@link FileSaveStore}
+ * with small segments, then times compaction and reopening (the recovery
+ * scan). Run with {@code --bench-save-log [saves]}.
+ *
+ * {@link #reconnect} has every player resume at once from several threads
+ * after a restart, with and without the DAO's save cache, and counts the
+ * database reads. Run with {@code --bench-reconnect [players] [threads]}.
+ *
+ * {@link #transfer} generates an NDJSON file of saves, imports it, exports
+ * the table again and imports that into a second database, reporting
+ * throughput and heap as it goes. Run with {@code --bench-transfer [rows]}.
+ *
+ * {@link #listing} gives one player a long save history and times pages
+ * deep into it, by OFFSET and through {@link SaveDAO#listSaves}. Run with
+ * {@code --bench-listing [saves]}.
+ */
+public final class SaveBench {
+
+    private SaveBench() { }
+
+    public static String run(int count) throws IOException, SQLException {
+        Path dir = Files.createTempDirectory("fractured-bench");
+        try {
+            GameState state = sampleState();
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%,d autosaves, one at a time%n", count));
+
+            String oldUrl = "jdbc:sqlite:" + dir.resolve("old.db");
+            try (DBUtil schema = new DBUtil(oldUrl, 1)) {
+                schema.initializeSchema();
+            }
+            long t0 = System.nanoTime();
+            for (int i = 0; i < count; i++) oldSave(oldUrl, state);
+            sb.append(line("connection per save", count, System.nanoTime() - t0));
+
+            try (DBUtil db = new DBUtil("jdbc:sqlite:" + dir.resolve("pooled.db"), 1)) {
+                db.initializeSchema();
+                SaveDAO dao = new SaveDAO(db);
+                t0 = System.nanoTime();
+                for (int i = 0; i < count; i++) dao.saveGame("autosave", state);
+                sb.append(line("pooled, WAL, cached", count, System.nanoTime() - t0));
+            }
+            return sb.toString();
+        } finally {
+            try (var files = Files.list(dir)) {
+                for (Path f : (Iterable<Path>) files::iterator) Files.deleteIfExists(f);
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    public static String groupCommit(int sessions, int savesEach, long... windowsMs)
+            throws IOException, SQLException, InterruptedException {
+        Path dir = Files.createTempDirectory("fractured-bench");
+        try {
+            GameState state = sampleState();
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%d sessions x %d saves, synchronous=NORMAL%n", sessions, savesEach));
+            sb.append(String.format("  %-10s %10s %10s %10s  %s%n", "window", "saves/s", "mean ms", "p99<= ms", "throughput"));
+            double best = 0;
+            String[] rows = new String[windowsMs.length + 1];
+            double[] rates = new double[windowsMs.length + 1];
+            for (int w = -1; w < windowsMs.length; w++) {
+                try (DBUtil db = new DBUtil("jdbc:sqlite:" + dir.resolve("gc" + w + ".db"), 2);
+                     SaveDAO dao = new SaveDAO(db)) {
+                    db.initializeSchema();
+                    if (w >= 0) dao.enableBatching(windowsMs[w], SaveDAO.DEFAULT_MAX_BATCH);
+                    StepStats latency = new StepStats();
+                    long nanos = drive(dao, state, sessions, savesEach, latency);
+                    double rate = (double) sessions * savesEach / (nanos / 1e9);
+                    best = Math.max(best, rate);
+                    rates[w + 1] = rate;
+                    rows[w + 1] = String.format("  %-10s %,10.0f %10.2f %10.2f  ", w < 0 ? "off" : windowsMs[w] + " ms",
+                            rate, latency.meanNanos() / 1e6, latency.percentileNanos(99) / 1e6);
+                }
+            }
+            for (int i = 0; i < rows.length; i++) {
+                sb.append(rows[i]).append("#".repeat((int) Math.round(40 * rates[i] / best))).append('\n');
+            }
+            return sb.toString();
+        } finally {
+            try (var files = Files.list(dir)) {
+                for (Path f : (Iterable<Path>) files::iterator) Files.deleteIfExists(f);
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    public static String retention(int saves) throws IOException, SQLException {
+        Path dir = Files.createTempDirectory("fractured-bench");
+        try (DBUtil db = new DBUtil("jdbc:sqlite:" + dir.resolve("retention.db"), 1)) {
+            db.initializeSchema();
+            SaveDAO dao = new SaveDAO(db);
+            SaveCompactor compactor = new SaveCompactor(db, dao.getHistoryDepth());
+            int players = 8;
+            GameState[] states = new GameState[players];
+            for (int i = 0; i < players; i++) {
+                states[i] = new GameState(new Player("player" + i));
+                states[i].getPlayer().getInventory().add("torch");
+                states[i].setCurrentScene("intro");
+            }
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%,d autosaves over %d players, history depth %d%n", saves, players, dao.getHistoryDepth()));
+            sb.append(String.format("  %10s %8s %10s %12s%n", "saves", "rows", "db bytes", "load us"));
+            int step = Math.max(1, saves / 10);
+            for (int i = 1; i <= saves; i++) {
+                GameState st = states[i % players];
+                st.setCurrentScene("scene" + i);
+                dao.saveGame(SaveDAO.AUTOSAVE, st);
+                if (i % step == 0) {
+                    compactor.runOnce();
+                    long t0 = System.nanoTime();
+                    for (int k = 0; k < 200; k++) dao.loadLatestForPlayer("player" + (k % players));
+                    double loadUs = (System.nanoTime() - t0) / 1e3 / 200;
+                    sb.append(String.format("  %,10d %8d %,10d %12.1f%n", i, rows(db), compactor.databaseBytes(), loadUs));
+                }
+            }
+            return sb.toString();
+        } finally {
+            try (var files = Files.list(dir)) {
+                for (Path f : (Iterable<Path>) files::iterator) Files.deleteIfExists(f);
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    public static String lookup(int rows) throws IOException, SQLException {
+        Path dir = Files.createTempDirectory("fractured-bench");
+        try (DBUtil db = new DBUtil("jdbc:sqlite:" + dir.resolve("lookup.db"), 1)) {
+            db.migrateTo(1);
+            int players = Math.max(1, rows / 100);
+            try (Connection conn = db.openConnection()) {
+                conn.setAutoCommit(false);
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "INSERT INTO saves(save_name, player_name, current_scene, inventory, created_at) VALUES (?,?,?,?,?)")) {
+                    long base = System.currentTimeMillis() - rows * 1000L;
+                    for (int i = 0; i < rows; i++) {
+                        ps.setString(1, SaveDAO.AUTOSAVE);
+                        ps.setString(2, "player" + (i % players));
+                        ps.setString(3, "scene" + i);
+                        ps.setString(4, "torch,silver_locket");
+                        ps.setString(5, new java.sql.Timestamp(base + i * 1000L).toString());
+                        ps.addBatch();
+                        if (i % 10_000 == 9_999) ps.executeBatch();
+                    }
+                    ps.executeBatch();
+                }
+                conn.commit();
+                conn.setAutoCommit(true);
+            }
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%,d rows, %,d players%n", rows, players));
+
+            int probes = 200;
+            String old = "SELECT * FROM saves WHERE player_name = ? ORDER BY created_at DESC LIMIT 1";
+            try (Connection conn = db.openConnection();
+                 PreparedStatement ps = conn.prepareStatement(old)) {
+                sb.append("  v1 plan: ").append(plan(conn, old)).append('\n');
+                long t0 = System.nanoTime();
+                for (int k = 0; k < probes; k++) {
+                    ps.setString(1, "player" + (k * 7919 % players));
+                    try (ResultSet rs = ps.executeQuery()) { rs.next(); }
+                }
+                sb.append(String.format("  v1, no index:      %10.1f us per lookup%n", (System.nanoTime() - t0) / 1e3 / probes));
+            }
+
+            long t0 = System.nanoTime();
+            db.migrateTo(DBUtil.latestSchemaVersion());
+            sb.append(String.format("  migrations to v%d: %10.1f ms%n", DBUtil.latestSchemaVersion(), (System.nanoTime() - t0) / 1e6));
+            try (Connection conn = db.openConnection()) {
+                sb.append("  v").append(DBUtil.latestSchemaVersion()).append(" plan: ")
+                  .append(plan(conn, "SELECT * FROM saves WHERE player_name = ? ORDER BY created_at DESC, gen DESC LIMIT 1")).append('\n');
+            }
+            SaveDAO dao = new SaveDAO(db);
+            for (int k = 0; k < probes; k++) dao.loadLatestForPlayer("player" + k % players); // warm the statement cache
+            t0 = System.nanoTime();
+            for (int k = 0; k < probes * 10; k++) dao.loadLatestForPlayer("player" + (k * 7919 % players));
+            sb.append(String.format("  v%d, indexed:       %10.1f us per lookup%n", DBUtil.latestSchemaVersion(),
+                    (System.nanoTime() - t0) / 1e3 / (probes * 10)));
+            return sb.toString();
+        } finally {
+            try (var files = Files.list(dir)) {
+                for (Path f : (Iterable<Path>) files::iterator) Files.deleteIfExists(f);
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    public static String codec(int iterations) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%,d iterations; csv = old inventory column, blob = new state column%n", iterations));
+        sb.append(String.format("  %-16s %8s %12s %12s%n", "state", "bytes", "encode ns", "decode ns"));
+        SaveCodec.Names names = new SaveCodec.Names() {
+            // stands in for the database's name table, which is served from memory too
+            private final Map<String, Integer> ids = new HashMap<>();
+            private final List<String> list = new ArrayList<>();
+
+            @Override
+            public int id(String name) {
+                return ids.computeIfAbsent(name, n -> { list.add(n); return list.size() - 1; });
+            }
+
+            @Override
+            public String name(int id) { return list.get(id); }
+        };
+        GameState small = sampleState();
+        GameState large = sampleState();
+        for (int i = 0; i < 60; i++) large.getPlayer().getInventory().add("journal_page_" + i);
+        for (GameState st : new GameState[] { small, large }) {
+            String label = st.getPlayer().getInventory().size() + " items";
+            String csv = st.getPlayer().getInventory().join(",");
+            byte[] plain = SaveCodec.encode(st, names, false);
+            byte[] packed = SaveCodec.encode(st, names, true);
+
+            sb.append(row(label + " csv", csv.getBytes(StandardCharsets.UTF_8).length,
+                    time(iterations, () -> st.getPlayer().getInventory().join(",")),
+                    time(iterations, () -> csvDecode(csv, st.getCurrentScene())), iterations));
+            sb.append(row(label + " blob", plain.length,
+                    time(iterations, () -> SaveCodec.encode(st, names, false)),
+                    time(iterations, () -> SaveCodec.decode(plain, names)), iterations));
+            if (packed.length < plain.length) {
+                sb.append(row(label + " deflated", packed.length,
+                        time(iterations, () -> SaveCodec.encode(st, names, true)),
+                        time(iterations, () -> SaveCodec.decode(packed, names)), iterations));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String row(String label, int bytes, long encNanos, long decNanos, int iterations) {
+        return String.format("  %-16s %8d %12.0f %12.0f%n", label, bytes, (double) encNanos / iterations, (double) decNanos / iterations);
+    }
+
+    // how SaveDAO read a row before the binary format
+    private static GameState csvDecode(String inv, String scene) {
+        Player p = new Player("Elias");
+        Arrays.stream(inv.split(",")).forEach(s -> {
+            if (!s.isBlank()) p.getInventory().add(s.trim());
+        });
+        GameState gs = new GameState(p);
+        gs.setCurrentScene(scene);
+        return gs;
+    }
+
+    private interface Op { Object run(); }
+
+    private static long time(int iterations, Op op) {
+        Object sink = null;
+        for (int i = 0; i < iterations; i++) sink = op.run(); // warm up
+        long t0 = System.nanoTime();
+        for (int i = 0; i < iterations; i++) sink = op.run();
+        long nanos = System.nanoTime() - t0;
+        if (sink == null) throw new IllegalStateException();
+        return nanos;
+    }
+
+    private static String plan(Connection conn, String sql) throws SQLException {
+        StringBuilder sb = new StringBuilder();
+        try (PreparedStatement ps = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            ps.setString(1, "player0");
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (sb.length() > 0) sb.append("; ");
+                    sb.append(rs.getString("detail"));
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    public static String journal(int scenes) throws IOException, SQLException {
+        Path dir = Files.createTempDirectory("fractured-bench");
+        try {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%,d scenes, one player%n", scenes));
+            sb.append(String.format("  %-16s %12s %12s %12s%n", "", "WAL bytes", "per scene", "restore us"));
+            GameState full = null, replayed = null;
+            for (int pass = 0; pass < 2; pass++) {
+                Path file = dir.resolve(pass == 0 ? "full.db" : "journal.db");
+                try (DBUtil db = new DBUtil("jdbc:sqlite:" + file, 1)) {
+                    db.initializeSchema();
+                    // keep every written page in the WAL so its size is what was written
+                    try (DBUtil.Lease lease = db.lease(); var st = lease.connection().createStatement()) {
+                        st.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+                        st.execute("PRAGMA wal_autocheckpoint=0");
+                    }
+                    SaveDAO dao = new SaveDAO(db);
+                    SaveJournal journal = pass == 0 ? null : new SaveJournal(dao, db);
+                    GameState state = sampleState();
+                    for (int i = 1; i <= scenes; i++) {
+                        walk(state, i);
+                        if (journal == null) {
+                            dao.saveGame(SaveDAO.AUTOSAVE, state);
+                        } else {
+                            journal.record(state);
+                            if (i % 16 == 0) journal.flush(); // roughly a second of play
+                        }
+                    }
+                    if (journal != null) journal.flush();
+                    long wal = Files.size(dir.resolve(file.getFileName() + "-wal"));
+                    long t0 = System.nanoTime();
+                    GameState back = journal == null ? dao.loadLatestForPlayer("Elias") : journal.restore("Elias");
+                    double restoreUs = (System.nanoTime() - t0) / 1e3;
+                    if (journal == null) full = back;
+                    else {
+                        replayed = back;
+                        journal.close();
+                    }
+                    sb.append(String.format("  %-16s %,12d %,12.0f %12.1f%n", journal == null ? "full autosave" : "journal",
+                            wal, (double) wal / scenes, restoreUs));
+                }
+            }
+            boolean same = full.getCurrentScene().equals(replayed.getCurrentScene())
+                    && full.getPlayer().getSanity() == replayed.getPlayer().getSanity()
+                    && full.getPlayer().getInventory().toString().equals(replayed.getPlayer().getInventory().toString());
+            sb.append("  restored states ").append(same ? "match" : "DIFFER").append('\n');
+            return sb.toString();
+        } finally {
+            try (var files = Files.list(dir)) {
+                for (Path f : (Iterable<Path>) files::iterator) Files.deleteIfExists(f);
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    public static String stores(int savesEach, int threads) throws IOException, InterruptedException {
+        Path dir = Files.createTempDirectory("fractured-bench");
+        try {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%d threads x %,d saves, then as many loads, 8 players per thread%n", threads, savesEach));
+            sb.append(String.format("  %-8s %10s %9s %9s %10s %9s %9s%n",
+                    "store", "saves/s", "p50<= us", "p99<= us", "loads/s", "p50<= us", "p99<= us"));
+            for (String kind : new String[]{"sqlite", "memory", "file"}) {
+                DBUtil db = null;
+                if (kind.equals("sqlite")) {
+                    db = new DBUtil("jdbc:sqlite:" + dir.resolve("stores.db"), threads);
+                    db.initializeSchema();
+                }
+                try (SaveStore store = SaveStore.open(kind, db, dir.resolve("segments"))) {
+                    StepStats saves = new StepStats();
+                    long saveNanos = hammer(threads, savesEach, saves, (t, i, st) -> {
+                        st.setCurrentScene("scene" + (i % 40));
+                        store.save(i % 2 == 0 ? SaveDAO.AUTOSAVE : SaveDAO.QUICKSAVE, st);
+                    });
+                    StepStats loads = new StepStats();
+                    long loadNanos = hammer(threads, savesEach, loads, (t, i, st) -> {
+                        if (store.loadLatest("player" + t + "_" + (i % 8)) == null) throw new IOException("save went missing");
+                    });
+                    double ops = (double) threads * savesEach;
+                    sb.append(String.format("  %-8s %,10.0f %9.1f %9.1f %,10.0f %9.1f %9.1f%n", kind,
+                            ops / (saveNanos / 1e9), saves.percentileNanos(50) / 1e3, saves.percentileNanos(99) / 1e3,
+                            ops / (loadNanos / 1e9), loads.percentileNanos(50) / 1e3, loads.percentileNanos(99) / 1e3));
+                } finally {
+                    if (db != null) db.close();
+                }
+            }
+            return sb.toString();
+        } finally {
+            deleteTree(dir);
+        }
+    }
+
+    public static String saveLog(int saves) throws IOException {
+        Path dir = Files.createTempDirectory("fractured-bench");
+        try {
+            int players = 1000;
+            GameState[] states = new GameState[players];
+            for (int i = 0; i < players; i++) {
+                states[i] = sampleState();
+                states[i].getPlayer().setName("player" + i);
+            }
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%,d autosaves over %,d players, 1 MB segments%n", saves, players));
+            try (FileSaveStore log = new FileSaveStore(dir, 1 << 20)) {
+                long t0 = System.nanoTime();
+                for (int i = 0; i < saves; i++) {
+                    GameState st = states[i % players];
+                    st.setCurrentScene("scene" + (i % 40));
+                    log.save(SaveDAO.AUTOSAVE, st);
+                }
+                sb.append(line("append", saves, System.nanoTime() - t0));
+                sb.append("  ").append(log.metrics()).append('\n');
+                t0 = System.nanoTime();
+                long freed = log.compact();
+                sb.append(String.format("  compact %,d bytes in %.1f ms%n", freed, (System.nanoTime() - t0) / 1e6));
+                sb.append("  ").append(log.metrics()).append('\n');
+            }
+            long t0 = System.nanoTime();
+            try (FileSaveStore log = new FileSaveStore(dir, 1 << 20)) {
+                sb.append(String.format("  reopen %.1f ms, %d slots for player0%n",
+                        (System.nanoTime() - t0) / 1e6, log.listSlots("player0").size()));
+            }
+            return sb.toString();
+        } finally {
+            deleteTree(dir);
+        }
+    }
+
+    public static String reconnect(int players, int threads) throws IOException, SQLException, InterruptedException {
+        Path dir = Files.createTempDirectory("fractured-bench");
+        try (DBUtil db = new DBUtil("jdbc:sqlite:" + dir.resolve("reconnect.db"), threads)) {
+            db.initializeSchema();
+            SaveDAO seed = new SaveDAO(db);
+            GameState state = sampleState();
+            for (int i = 0; i < players; i++) {
+                state.getPlayer().setName("player" + i);
+                seed.saveGame(SaveDAO.AUTOSAVE, state);
+            }
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%,d players resumed by each of %d threads, then once more%n", players, threads));
+            for (int cached = 0; cached < 2; cached++) {
+                SaveDAO dao = new SaveDAO(db); // a fresh JVM's view: nothing cached yet
+                if (cached == 1) dao.enableCache(players);
+                long[] storm = new long[2];
+                for (int round = 0; round < 2; round++) {
+                    long t0 = System.nanoTime();
+                    resumeAll(dao, players, threads);
+                    storm[round] = System.nanoTime() - t0;
+                }
+                sb.append(String.format("  %-9s storm %8.1f ms, again %8.1f ms  %s%n", cached == 1 ? "cache" : "no cache",
+                        storm[0] / 1e6, storm[1] / 1e6, dao.cacheMetrics()));
+            }
+            return sb.toString();
+        } finally {
+            deleteTree(dir);
+        }
+    }
+
+    public static String transfer(int rows) throws IOException, SQLException {
+        Path dir = Files.createTempDirectory("fractured-bench");
+        try {
+            Path source = dir.resolve("source.ndjson");
+            try (var out = Files.newBufferedWriter(source, StandardCharsets.UTF_8)) {
+                StringBuilder sb = new StringBuilder();
+                for (int i = 0; i < rows; i++) {
+                    // six rows per player: two slots, three ring positions each
+                    sb.setLength(0);
+                    sb.append("{\"player\":\"player").append(i / 6).append("\",\"slot\":\"")
+                            .append(i % 2 == 0 ? SaveDAO.AUTOSAVE : SaveDAO.QUICKSAVE)
+                            .append("\",\"scene\":\"scene").append(i % 40).append("\",\"sanity\":").append(100 - i % 60)
+                            .append(",\"pacing\":\"normal\",\"inventory\":[\"torch\",\"silver_locket\"]")
+                            .append(",\"created_at\":\"2026-01-01 00:00:00.000\",\"gen\":").append(i % 6 / 2)
+                            .append(",\"ring\":").append(i % 6 / 2).append("}\n");
+                    out.write(sb.toString());
+                }
+            }
+            StringBuilder report = new StringBuilder();
+            report.append(String.format("%,d saves, chunks of %,d%n", rows, SaveTransfer.CHUNK));
+            Path exported = dir.resolve("exported.ndjson");
+            long t0;
+            try (DBUtil a = new DBUtil("jdbc:sqlite:" + dir.resolve("a.db"), 2)) {
+                a.initializeSchema();
+                SaveTransfer transfer = new SaveTransfer(a, System.out);
+                t0 = System.nanoTime();
+                transfer.importFrom(source);
+                report.append(line("import", rows, System.nanoTime() - t0));
+                t0 = System.nanoTime();
+                long n = transfer.exportTo(exported);
+                report.append(line("export", (int) n, System.nanoTime() - t0));
+            }
+            try (DBUtil b = new DBUtil("jdbc:sqlite:" + dir.resolve("b.db"), 2)) {
+                b.initializeSchema();
+                new SaveTransfer(b, null).importFrom(exported);
+                report.append(String.format("  round trip: %,d rows in the copy, file %,d bytes%n", rows(b), Files.size(exported)));
+            }
+            return report.toString();
+        } finally {
+            deleteTree(dir);
+        }
+    }
+
+    public static String listing(int saves) throws IOException, SQLException {
+        Path dir = Files.createTempDirectory("fractured-bench");
+        try (DBUtil db = new DBUtil("jdbc:sqlite:" + dir.resolve("listing.db"), 1)) {
+            db.initializeSchema();
+            SaveDAO dao = new SaveDAO(db);
+            byte[] blob = SaveCodec.encode(sampleState(), dao.nameTable(), true);
+            // a long-lived slot per save, as if the history depth were unbounded, plus other players around it
+            try (DBUtil.Lease lease = db.lease()) {
+                Connection conn = lease.connection();
+                conn.setAutoCommit(false);
+                PreparedStatement ps = lease.prepare("INSERT INTO saves(save_name, player_name, current_scene, sanity, state, "
+                        + "created_at, gen, ring) VALUES (?, ?, 'act3_main_choice', 80, ?, "
+                        + "strftime('%Y-%m-%d %H:%M:%f', '2026-01-01', ? || ' seconds'), 0, 0)");
+                for (int i = 0; i < saves * 2; i++) {
+                    boolean elias = i % 2 == 0;
+                    ps.setString(1, "slot" + i);
+                    ps.setString(2, elias ? "Elias" : "player" + (i % 97));
+                    ps.setBytes(3, blob);
+                    ps.setInt(4, i);
+                    ps.addBatch();
+                    if (i % 10_000 == 9_999) ps.executeBatch();
+                }
+                ps.executeBatch();
+                conn.commit();
+                conn.setAutoCommit(true);
+            }
+            int pageSize = 20;
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%,d saves for one player, pages of %d%n", saves, pageSize));
+            sb.append(String.format("  %10s %12s %12s%n", "page", "offset us", "keyset us"));
+            String offsetSql = "SELECT id, save_name, player_name, created_at, current_scene, sanity, pacing, state, inventory "
+                    + "FROM saves WHERE player_name = ? ORDER BY created_at DESC, id DESC LIMIT ? OFFSET ?";
+            for (int r = 0; r < 500; r++) dao.listSaves("Elias", null, pageSize); // warm up
+            SaveDAO.Page page = dao.listSaves("Elias", null, pageSize);
+            int pages = saves / pageSize;
+            for (int n = 1; n <= pages; n++) {
+                boolean report = n == 1 || n == pages || Integer.bitCount(n) == 1 && n >= 10;
+                if (report) {
+                    SaveEntry after = page.last();
+                    long t0 = System.nanoTime();
+                    int reps = 50;
+                    for (int r = 0; r < reps; r++) {
+                        try (DBUtil.Lease lease = db.lease()) {
+                            PreparedStatement ps = lease.prepare(offsetSql);
+                            ps.setString(1, "Elias");
+                            ps.setInt(2, pageSize);
+                            ps.setInt(3, n * pageSize);
+                            try (ResultSet rs = ps.executeQuery()) {
+                                while (rs.next()) rs.getBytes("state");
+                            }
+                        }
+                    }
+                    long offsetNanos = (System.nanoTime() - t0) / reps;
+                    t0 = System.nanoTime();
+                    for (int r = 0; r < reps; r++) dao.listSaves("Elias", after, pageSize);
+                    long keysetNanos = (System.nanoTime() - t0) / reps;
+                    sb.append(String.format("  %,10d %12.1f %12.1f%n", n + 1, offsetNanos / 1e3, keysetNanos / 1e3));
+                }
+                if (!page.hasMore()) break;
+                page = dao.listSaves("Elias", page.last(), pageSize);
+            }
+            try (DBUtil.Lease lease = db.lease()) {
+                sb.append("  keyset plan: ").append(plan(lease.connection(), "SELECT id FROM saves WHERE player_name = ? "
+                        + "AND (created_at, id) < ('9999', 1) ORDER BY created_at DESC, id DESC LIMIT 20")).append('\n');
+            }
+            return sb.toString();
+        } finally {
+            deleteTree(dir);
+        }
+    }
+
+    // each thread resumes every player, starting at a different one so they collide
+    private static void resumeAll(SaveDAO dao, int players, int threads) throws SQLException, InterruptedException {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] ts = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int offset = t * 7;
+            ts[t] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < players; i++) {
+                        if (dao.loadLatestForPlayer("player" + ((i + offset) % players)) == null) {
+                            throw new SQLException("save went missing");
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }, "reconnect-" + t);
+            ts[t].start();
+        }
+        for (Thread t : ts) t.join();
+        if (failure.get() != null) throw new SQLException("resume failed", failure.get());
+    }
+
+    private interface StoreOp {
+        void run(int thread, int i, GameState state) throws IOException;
+    }
+
+    // every thread runs op count times over its own players; returns wall time
+    private static long hammer(int threads, int count, StepStats latency, StoreOp op) throws IOException, InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] ts = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            ts[t] = new Thread(() -> {
+                GameState[] mine = new GameState[8];
+                for (int k = 0; k < mine.length; k++) {
+                    mine[k] = sampleState();
+                    mine[k].getPlayer().setName("player" + thread + "_" + k);
+                }
+                try {
+                    start.await();
+                    for (int i = 0; i < count; i++) {
+                        long t0 = System.nanoTime();
+                        op.run(thread, i, mine[i % mine.length]);
+                        latency.record(System.nanoTime() - t0);
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }, "store-bench-" + t);
+            ts[t].start();
+        }
+        long t0 = System.nanoTime();
+        start.countDown();
+        for (Thread t : ts) t.join();
+        long nanos = System.nanoTime() - t0;
+        if (failure.get() != null) throw new IOException("benchmark thread failed", failure.get());
+        return nanos;
+    }
+
+    private static void deleteTree(Path dir) throws IOException {
+        try (var walk = Files.walk(dir)) {
+            for (Path f : (Iterable<Path>) walk.sorted(Comparator.reverseOrder())::iterator) Files.deleteIfExists(f);
+        }
+    }
+
+    // a scene's worth of change: always a new scene, sometimes a whisper or an item
+    private static void walk(GameState state, int i) {
+        Player p = state.getPlayer();
+        state.setCurrentScene("scene" + (i % 40));
+        if (i % 3 == 0) p.modifySanity(p.getSanity() < 20 ? 30 : -7);
+        if (i % 11 == 0) p.getInventory().add("note" + (i % 5));
+        if (i % 17 == 0) p.getInventory().remove("note" + (i % 5));
+    }
+
+    private static long rows(DBUtil db) throws SQLException {
+        try (DBUtil.Lease lease = db.lease();
+             var rs = lease.prepare("SELECT COUNT(*) FROM saves").executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    // every session saves, waits for durability, saves again
+    private static long drive(SaveDAO dao, GameState state, int sessions, int savesEach, StepStats latency)
+            throws InterruptedException, SQLException {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] ts = new Thread[sessions];
+        for (int s = 0; s < sessions; s++) {
+            ts[s] = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < savesEach; i++) {
+                        long t0 = System.nanoTime();
+                        dao.saveAsync("autosave", state).join();
+                        latency.record(System.nanoTime() - t0);
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }, "save-bench-" + s);
+            ts[s].start();
+        }
+        long t0 = System.nanoTime();
+        start.countDown();
+        for (Thread t : ts) t.join();
+        long nanos = System.nanoTime() - t0;
+        if (failure.get() != null) throw new SQLException("benchmark save failed", failure.get());
+        return nanos;
+    }
+
+    // what SaveDAO.saveGame did before the pool
+    private static void oldSave(String url, GameState state) throws SQLException {
+        String sql = "INSERT INTO saves(save_name, player_name, current_scene, inventory) VALUES (?,?,?,?)";
+        try (Connection conn = DriverManager.getConnection(url);
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            Player p = state.getPlayer();
+            ps.setString(1, "autosave");
+            ps.setString(2, p.getName());
+            ps.setString(3, state.getCurrentScene());
+            ps.setString(4, p.getInventory().join(","));
+            ps.executeUpdate();
+        }
+    }
+
+    private static GameState sampleState() {
+        Player p = new Player("Elias");
+        p.getInventory().add("torch");
+        p.getInventory().add("silver_locket");
+        GameState state = new GameState(p);
+        state.setCurrentScene("act3_main_choice");
+        return state;
+    }
+
+    private static String line(String label, int count, long nanos) {
+        return String.format("  %-22s %,10.0f saves/s  %8.1f us each%n",
+                label, count / (nanos / 1e9), nanos / 1e3 / count);
+    }
+}
@@ -0,0 +1,63 @@
+package com.fractured.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fractured.core.GameState;
+import com.fractured.core.SceneOutput;
+import com.fractured.core.Snapshot;
+import com.fractured.model.Player;
+
+/**
+ * Measures what a {@link Snapshot} and a {@link GameState#fork} cost in heap
+ * and time, next to the list-of-strings copy inventories used to need.
+ * Heap numbers come from used-memory deltas around full GCs, so they are
+ * approximate. Run with {@code --bench-snapshots [count]}.
+ */
+public final class SnapshotBench {
+
+    private SnapshotBench() { }
+
+    public static String run(int count) {
+        Player p = new Player("Elias");
+        for (String item : new String[] { "torch", "silver_locket", "oil_can", "clarity_token", "circuit_part" }) {
+            p.getInventory().add(item);
+        }
+        p.getInventory().add("clarity_token"); // a duplicate, so the count array is in play too
+        GameState state = new GameState(p, SceneOutput.discarding());
+        state.setCurrentScene("act3_main_choice");
+        SceneOutput out = SceneOutput.discarding();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%,d copies of a state carrying %d items%n", count, p.getInventory().size()));
+        sb.append(line("snapshot", count, () -> state.snapshot()));
+        sb.append(line("fork", count, () -> state.fork(out)));
+        sb.append(line("fork, then add", count, () -> {
+            GameState f = state.fork(out);
+            f.getPlayer().getInventory().add("clarity_token");
+            return f;
+        }));
+        sb.append(line("item list only (old)", count, () -> new ArrayList<>(p.getInventory().list())));
+        return sb.toString();
+    }
+
+    private interface Make { Object make(); }
+
+    private static String line(String label, int count, Make m) {
+        for (int i = 0; i < Math.min(count, 100_000); i++) m.make(); // warm up
+        List<Object> keep = new ArrayList<>(count);
+        long before = usedHeap();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < count; i++) keep.add(m.make());
+        long nanos = System.nanoTime() - t0;
+        long bytes = usedHeap() - before - (long) count * 4; // minus the list's own slots (compressed oops)
+        if (keep.size() != count) throw new IllegalStateException();
+        return String.format("  %-24s %6.1f bytes  %6.1f ns each%n", label, (double) bytes / count, (double) nanos / count);
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
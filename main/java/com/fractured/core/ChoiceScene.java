@@ -1,11 +1,14 @@
 package com.fractured.core;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 
 public class ChoiceScene extends Scene {
     private final String prompt;
     private final Map<String, String> choices; // option -> nextScene
+    private int[] targets; // choice order -> scene index, set by link()
 
     public ChoiceScene(String id, String title, String prompt, Map<String, String> choices) {
         super(id, title);
@@ -14,25 +17,68 @@ public class ChoiceScene extends Scene {
     }
 
     @Override
-    public String play(GameState state, Scanner in) throws GameException {
-        System.out.println("[" + getTitle() + "]");
-        System.out.println(prompt);
+    public boolean awaitsInput() { return true; }
+
+    @Override
+    public List<String> getTargets() { return new ArrayList<>(choices.values()); }
+
+    public String getPrompt() { return prompt; }
+
+    public int getChoiceCount() { return choices.size(); }
+
+    /** Option labels in menu order (option 1 first). */
+    public List<String> getOptions() { return new ArrayList<>(choices.keySet()); }
+
+    @Override
+    public void prompt(GameState state) {
+        state.getOut().println("[" + getTitle() + "]");
+        state.getOut().println(prompt);
         int i = 1;
-        String[] opts = new String[choices.size()];
         for (String opt : choices.keySet()) {
-            System.out.println(i + ") " + opt);
-            opts[i-1] = opt;
+            state.getOut().println(i + ") " + opt);
             i++;
         }
-        System.out.print("> ");
-        String line = in.nextLine().trim();
+        state.getOut().print("> ");
+    }
+
+    @Override
+    public String resume(GameState state, String input) throws GameException {
+        int sel = select(input);
+        int i = 1;
+        for (String target : choices.values()) {
+            if (i++ == sel) return target;
+        }
+        throw new GameException("Invalid choice");
+    }
+
+    @Override
+    void link(SceneGraph graph) {
+        int[] t = new int[choices.size()];
+        int i = 0;
+        for (String target : choices.values()) t[i++] = graph.indexOf(target);
+        targets = t;
+    }
+
+    @Override
+    int resumeIndexed(GameState state, String input, SceneGraph graph) throws GameException {
+        return targets[select(input) - 1];
+    }
+
+    /** Parses a 1-based menu selection. */
+    private int select(String input) throws GameException {
         int sel;
         try {
-            sel = Integer.parseInt(line);
-            if (sel < 1 || sel > opts.length) throw new NumberFormatException();
+            sel = Integer.parseInt(input.trim());
+            if (sel < 1 || sel > choices.size()) throw new NumberFormatException();
         } catch (NumberFormatException e) {
             throw new GameException("Invalid choice");
         }
-        return choices.get(opts[sel-1]);
+        return sel;
+    }
+
+    @Override
+    public String play(GameState state, Scanner in) throws GameException {
+        prompt(state);
+        return resume(state, in.nextLine());
     }
 }
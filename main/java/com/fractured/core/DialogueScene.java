@@ -1,10 +1,14 @@
 package com.fractured.core;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Scanner;
 
 public class DialogueScene extends Scene {
     private final String[] lines;
     private final String nextScene;
+    private int nextIndex = SceneGraph.UNKNOWN;
 
     public DialogueScene(String id, String title, String[] lines, String nextScene) {
         super(id, title);
@@ -14,13 +18,33 @@ public class DialogueScene extends Scene {
 
     @Override
     public String play(GameState state, Scanner in) throws GameException {
-        System.out.println("[" + getTitle() + "]");
+        render(state);
+        return nextScene;
+    }
+
+    @Override
+    public List<String> getTargets() { return Collections.singletonList(nextScene); }
+
+    public List<String> getLines() { return Collections.unmodifiableList(Arrays.asList(lines)); }
+
+    public String getNextScene() { return nextScene; }
+
+    @Override
+    void link(SceneGraph graph) { nextIndex = graph.indexOf(nextScene); }
+
+    @Override
+    int playIndexed(GameState state, SceneGraph graph) {
+        render(state);
+        return nextIndex;
+    }
+
+    private void render(GameState state) {
+        state.getOut().println("[" + getTitle() + "]");
         for (String l : lines) {
-            System.out.println(l);
-            // small pause simulation
-            try { Thread.sleep(350); } catch (InterruptedException ignored) {}
+            state.getOut().println(l);
+            // small pause, played back by the session's Pacer
+            state.getOut().pause();
         }
-        System.out.println();
-        return nextScene;
+        state.getOut().println();
     }
 }
@@ -24,22 +24,27 @@ public class EffectChoiceScene extends ChoiceScene {
     }
 
     @Override
-    public String play(GameState state, java.util.Scanner in) throws GameException {
-        // Let base ChoiceScene handle display and selection; we capture the selected key
-        // To do that we call super.play but we need the label of the choice selected.
-        // Since original ChoiceScene probably returns the nextScene id, we replicate its
-        // behaviour with minor modifications. Implement minimal re-display logic by
-        // copying the choice behaviour — if ChoiceScene internals are different, adapt accordingly.
-        // For safety, we'll call ChoiceScene's play (which returns nextId) and then run the callback
-        // with a convention: the choice label isn't available from ChoiceScene; instead we
-        // will run onChoice with the returned next id (so callback can switch on nextId).
-        String nextId = super.play(state, in);
+    public String resume(GameState state, String input) throws GameException {
+        // ChoiceScene only hands back the next scene id, not the selected label,
+        // so the callback runs with that id (callbacks switch on nextId).
+        String nextId = super.resume(state, input);
+        runEffect(state, nextId);
+        return nextId;
+    }
+
+    @Override
+    int resumeIndexed(GameState state, String input, SceneGraph graph) throws GameException {
+        int next = super.resumeIndexed(state, input, graph);
+        runEffect(state, graph.idOf(next));
+        return next;
+    }
+
+    private void runEffect(GameState state, String nextId) throws GameException {
         try {
             if (onChoice != null) onChoice.accept(state, nextId);
         } catch (Exception e) {
             // convert to GameException so caller handles it
             throw new GameException("EffectChoiceScene side-effect failed: " + e.getMessage());
         }
-        return nextId;
     }
 }
@@ -1,88 +1,225 @@
 package com.fractured.core;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.Scanner;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import com.fractured.ui.SanityDisplayController;
 
-import com.fractured.db.SaveDAO;
+import com.fractured.db.AutosaveWriter;
+import com.fractured.db.SaveJournal;
+import com.fractured.db.SaveStore;
 import com.fractured.threads.Lapati;
 
 public class GameEngine {
-    private final Map<String, Scene> scenes = new HashMap<>();
+    private final Map<String, Scene> scenes = new LinkedHashMap<>();
+    // compiled, immutable scene graph, published once registration is done and shared by all sessions
+    private volatile SceneGraph graph;
+    private ValidationReport validation;
+    private final Set<String> duplicates = new LinkedHashSet<>(); // ids registered more than once
+    private String startScene = "intro";
     private final GameState state;
-    private final SaveDAO saveDAO;
-    private final Lapati lapati;
-    private final SanityDisplayController sanityUI;
+    private final SaveStore saves;
+    private final AutosaveWriter autosaves; // null without a store
+    private volatile SaveJournal journal; // replaces full autosaves when set
+    private final StepStats stepStats = new StepStats();
+    private volatile boolean headlessStepStats; // off: bulk runs would all contend on the shared counters
 
-    private final ExecutorService es = Executors.newSingleThreadExecutor();
+    /**
+     * Engine without a bound player, for hosting many sessions (see {@link SessionHost}).
+     */
+    public GameEngine(SaveStore saves) {
+        this(null, saves);
+    }
 
-    public GameEngine(GameState state, SaveDAO saveDAO) {
+    public GameEngine(GameState state, SaveStore saves) {
         this.state = state;
-        this.saveDAO = saveDAO;
-        this.lapati = new Lapati(state);
-        this.sanityUI = new SanityDisplayController(state.getPlayer());
+        this.saves = saves;
+        this.autosaves = saves == null ? null : new AutosaveWriter(saves);
+    }
 
+    public synchronized void register(Scene s) {
+        if (graph != null) {
+            throw new IllegalStateException("Scene registry is frozen, cannot register: " + s.getId());
+        }
+        if (scenes.put(s.getId(), s) != null) duplicates.add(s.getId());
     }
 
-    public void register(Scene s){ scenes.put(s.getId(), s); }
+    /**
+     * Scene the story starts from, used to check reachability when freezing.
+     */
+    public synchronized void setStartScene(String id) { this.startScene = id; }
 
     /**
      * Quick diagnostic helper used by Main to verify registration of scenes.
      */
-    public boolean hasScene(String id) { return scenes.containsKey(id); }
+    public boolean hasScene(String id) {
+        SceneGraph g = graph;
+        if (g != null) return g.scene(id) != null; // no need to load lazy scenes for this
+        return getScene(id) != null;
+    }
+
+    /**
+     * Title of the scene registered under {@code id}, or null if there is
+     * none. Unlike {@link #getScene} this leaves a {@link LazyScene} unloaded
+     * when its story index already knows the title.
+     */
+    public String sceneTitle(String id) {
+        SceneGraph g = graph;
+        Scene s;
+        if (g != null) {
+            s = g.scene(id);
+        } else {
+            synchronized (this) {
+                s = scenes.get(id);
+            }
+        }
+        return s != null ? s.getTitle() : null;
+    }
+
+    /** Id of the scene at {@code index} in the frozen graph (see {@link GameState#getSceneIndex}), or null. */
+    public String sceneId(int index) {
+        return graph().idOf(index);
+    }
+
+    /**
+     * The scene registered under {@code id}. Once frozen, scenes registered
+     * as a {@link LazyScene} are loaded and the real scene is returned.
+     */
+    public Scene getScene(String id) {
+        SceneGraph g = graph;
+        if (g != null) {
+            Scene s = g.scene(id);
+            return s instanceof LazyScene ? ((LazyScene) s).resolve() : s;
+        }
+        synchronized (this) {
+            return scenes.get(id);
+        }
+    }
+
+    /**
+     * Ends registration and compiles the scene graph: ids become dense ints
+     * and every dialogue/choice target is resolved. The graph is then
+     * validated; warnings (unreachable scenes, closed loops, duplicate ids)
+     * go to stderr. After this the graph is read-only and shared by any
+     * number of sessions without locking.
+     *
+     * @throws IllegalStateException if any scene points at an id nobody registered
+     */
+    public synchronized SceneGraph freeze() {
+        if (graph == null) {
+            SceneGraph g = SceneGraph.compile(new ArrayList<>(scenes.values()));
+            ValidationReport report = SceneGraphValidator.validate(g, startScene, duplicates);
+            if (report.hasErrors()) {
+                throw new IllegalStateException("Scene graph is broken:" + System.lineSeparator() + report);
+            }
+            if (!report.isClean()) System.err.println(report);
+            validation = report;
+            graph = g;
+        }
+        return graph;
+    }
+
+    /**
+     * Findings from the validation pass run by {@link #freeze()}.
+     */
+    public synchronized ValidationReport getValidationReport() {
+        freeze();
+        return validation;
+    }
+
+    SceneGraph graph() {
+        SceneGraph g = graph;
+        return g != null ? g : freeze();
+    }
+
+    /** Step latencies of this engine's sessions; headless ones only after {@link #setHeadlessStepStats}. */
+    public StepStats getStepStats() { return stepStats; }
+
+    /** Also time steps of headless sessions (simulations, the explorer). */
+    public void setHeadlessStepStats(boolean on) { this.headlessStepStats = on; }
+
+    /**
+     * Advances a session by one player input without blocking for more: the
+     * answer goes to the scene the session is waiting on, then scenes run until
+     * the next one needs input or the story ends. Pass null to start a session.
+     */
+    public StepResult step(GameSession session, String input) {
+        if (session.isHeadless() && !headlessStepStats) return session.advance(input);
+        long t0 = System.nanoTime();
+        StepResult r = session.advance(input);
+        stepStats.record(System.nanoTime() - t0);
+        return r;
+    }
+
+    // hands the save to the background writer; the player doesn't wait on disk
+    void autosave(GameState st) {
+        SaveJournal j = journal;
+        if (j != null) j.record(st);
+        else if (autosaves != null) autosaves.submit("autosave", st);
+    }
+
+    // audit trail only; what the choice did is picked up by the next autosave
+    void choiceMade(GameState st, String sceneId, String input) {
+        SaveJournal j = journal;
+        if (j != null) j.choice(st, sceneId, input);
+    }
+
+    /**
+     * Journals every session's progress as events instead of writing a
+     * full autosave after each scene. Pass null to go back to autosaves.
+     */
+    public void setJournal(SaveJournal journal) { this.journal = journal; }
+
+    public SaveJournal getJournal() { return journal; }
+
+    /** Where this engine's saves go; null if it keeps none. */
+    public SaveStore getSaveStore() { return saves; }
+
+    /** Background autosave writer and its metrics; null for an engine without a store. */
+    public AutosaveWriter getAutosaves() { return autosaves; }
+
+    /** Writes every pending autosave and journal event before returning. */
+    public void flushAutosaves() {
+        if (autosaves != null) autosaves.flush();
+        SaveJournal j = journal;
+        if (j != null) j.flush();
+    }
+
+    /** Stops the autosave writer and journal after flushing them; later autosaves are written synchronously. */
+    public void close() {
+        if (autosaves != null) autosaves.close();
+        SaveJournal j = journal;
+        if (j != null) j.close();
+    }
 
     public void start() {
+        try (Scanner in = new Scanner(System.in)) {
+            start(in);
+        }
+    }
+
+    /** Plays the bound state on the console, reading answers from {@code in}, which is left open. */
+    public void start(Scanner in) {
+        if (state == null) throw new IllegalStateException("start() needs an engine created with a GameState");
+        freeze();
+
         // start lapati thread
+        Lapati lapati = new Lapati(state, System.out);
+        ExecutorService es = Executors.newSingleThreadExecutor();
         es.submit(lapati);
 
-        try (Scanner in = new Scanner(System.in)) {
-            String current = state.getCurrentScene();
-            while (current != null) {
-                Scene s = scenes.get(current);
-                if (s == null) {
-                    System.out.println("No scene: " + current);
-                    break;
-                }
-                try {
-    
-                   
-                    String next = s.play(state, in);
-                    // debug: report next scene id returned by the scene
-                    System.out.println("[DEBUG] scene '" + s.getId() + "' returned next='" + next + "'");
-
-    // small autosave after every scene — handle checked exceptions here
-    try {
-        saveDAO.saveGame("autosave", state);
-    } catch (Exception e) {
-        // log but do not stop the game
-        System.err.println("Warning: failed to autosave: " + e.getMessage());
-        // optional: e.printStackTrace();
-    }
-
-    current = next;
-    synchronized (state) {
-        state.setCurrentScene(current);
-    }
-
-    // termination conditions
-    if (state.getPlayer().getSanity() <= 0) {
-        sanityUI.tick();
-        System.out.println("You slipped into the darkness. Game over.");
-        break;
-    }
-
-} catch (GameException ge) {
-    System.out.println("Error: " + ge.getMessage());
-}
-
-            }
+        try {
+            new GameSession(this, state, in, System.out).run();
         } finally {
             // stop lapati and shutdown
             lapati.stop();
             es.shutdownNow();
+            // the last state is on disk by the time start() returns
+            flushAutosaves();
         }
     }
 }
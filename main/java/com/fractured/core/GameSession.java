@@ -0,0 +1,191 @@
+package com.fractured.core;
+
+import java.io.PrintStream;
+import java.util.Scanner;
+
+import com.fractured.ui.SanityDisplayController;
+
+/**
+ * One playthrough: a GameState run against the engine's shared scene
+ * registry. A session is either driven line by line through
+ * {@link GameEngine#step}, or runs its own blocking loop over a Scanner via
+ * {@link #run()}, which paces each step's output onto a sink.
+ */
+public class GameSession implements Runnable {
+    // a step that plays this many scenes without asking for input is stuck in a loop
+    private static final int MAX_SCENES_PER_STEP = 10_000;
+    // how many choices "undo" can take back
+    private static final int HISTORY_SIZE = 32;
+    public static final String UNDO = "undo";
+
+    private final GameEngine engine;
+    private final GameState state;
+    private final Scanner in;
+    private final PrintStream sink;
+    private final SanityDisplayController sanityUI; // null when headless
+    private final History history; // checkpoint before every answered choice; null when headless
+    private final boolean headless;
+    private volatile boolean finished;
+    private String lastScene;
+
+    /**
+     * Session for the step API; scene output is collected and returned by each step.
+     */
+    public GameSession(GameEngine engine, GameState state) {
+        this(engine, state, null, null);
+    }
+
+    /**
+     * Session that reads from {@code in} and plays its output onto {@code sink}.
+     */
+    public GameSession(GameEngine engine, GameState state, Scanner in, PrintStream sink) {
+        this(engine, state, in, sink, false);
+    }
+
+    private GameSession(GameEngine engine, GameState state, Scanner in, PrintStream sink, boolean headless) {
+        this.engine = engine;
+        this.state = state;
+        this.in = in;
+        this.sink = sink;
+        this.headless = headless;
+        this.sanityUI = headless ? null : new SanityDisplayController(state.getPlayer(), state.getOut());
+        this.history = headless ? null : new History(HISTORY_SIZE);
+    }
+
+    /**
+     * Step-driven session for simulations and bots: no autosave, no debug
+     * trace and no sanity popup. Pair it with a state whose output discards
+     * (see {@link SceneOutput#discarding()}) to skip rendering entirely.
+     */
+    public static GameSession headless(GameEngine engine, GameState state) {
+        return new GameSession(engine, state, null, null, true);
+    }
+
+    public GameState getState() { return state; }
+
+    public boolean isFinished() { return finished; }
+
+    boolean isHeadless() { return headless; }
+
+    /** Checkpoints taken before each answered choice, newest first; null for headless sessions. */
+    public History getHistory() { return history; }
+
+    /** Id of the most recently played scene, e.g. the ending a finished session reached. */
+    public String getLastScene() { return lastScene; }
+
+    @Override
+    public void run() {
+        if (in == null) throw new IllegalStateException("step-driven session has no input to run on");
+        try {
+            StepResult r = engine.step(this, null);
+            while (true) {
+                // wait for the paced output before asking for the next line
+                Pacer.deliver(r.getBeats(), state.getPacing(), sink::print).join();
+                sink.flush();
+                if (r.isEnded() || !in.hasNextLine()) break;
+                r = engine.step(this, in.nextLine());
+            }
+        } finally {
+            finished = true;
+        }
+    }
+
+    /**
+     * Runs scenes until one needs input or the story ends. {@code input}
+     * answers the scene the previous step stopped at; pass null to start.
+     * Answering {@value #UNDO} instead rewinds to the previous choice.
+     */
+    synchronized StepResult advance(String input) {
+        SceneGraph graph = engine.graph();
+        boolean awaiting = false;
+        int current = state.getSceneIndex();
+        if (current == SceneGraph.UNKNOWN) current = graph.indexOf(state.getCurrentScene());
+        int played = 0;
+        while (!finished) {
+            if (++played > MAX_SCENES_PER_STEP) {
+                state.getOut().println("Error: no input asked for in " + MAX_SCENES_PER_STEP + " scenes, giving up");
+                finished = true;
+                break;
+            }
+            if (current == SceneGraph.END) {
+                finished = true;
+                break;
+            }
+            if (current == SceneGraph.UNKNOWN) {
+                state.getOut().println("No scene: " + state.getCurrentScene());
+                finished = true;
+                break;
+            }
+            Scene s = graph.scene(current);
+            int next;
+            try {
+                if (s.awaitsInput()) {
+                    if (input == null) {
+                        s.prompt(state);
+                        awaiting = true;
+                        break;
+                    }
+                    String line = input;
+                    input = null;
+                    if (history != null && line.trim().equalsIgnoreCase(UNDO)) {
+                        current = undo(graph);
+                        if (!headless) {
+                            engine.choiceMade(state, s.getId(), line);
+                            // the rewound state is progress too, save it like a forward step
+                            engine.autosave(state);
+                        }
+                        continue;
+                    }
+                    Snapshot before = history != null ? state.snapshot() : null;
+                    next = s.resumeIndexed(state, line, graph);
+                    if (before != null) history.push(before);
+                    if (!headless) engine.choiceMade(state, s.getId(), line);
+                } else {
+                    next = s.playIndexed(state, graph);
+                }
+            } catch (GameException ge) {
+                state.getOut().println("Error: " + ge.getMessage());
+                // a choice just asks again; a scene that fails on its own would fail forever
+                if (s.awaitsInput()) continue;
+                finished = true;
+                break;
+            }
+
+            lastScene = s.getId();
+            if (!headless) {
+                // debug: report next scene id returned by the scene
+                state.getOut().println("[DEBUG] scene '" + s.getId() + "' returned next='" + graph.idOf(next) + "'");
+
+                // small autosave after every scene
+                engine.autosave(state);
+            }
+
+            current = next;
+            synchronized (state) {
+                state.moveTo(current, graph.idOf(current));
+            }
+
+            // termination conditions
+            if (state.getPlayer().getSanity() <= 0) {
+                if (sanityUI != null) sanityUI.tick();
+                state.getOut().println("You slipped into the darkness. Game over.");
+                finished = true;
+            }
+        }
+        return new StepResult(state.getOut().drain(), state.getCurrentScene(), awaiting, finished);
+    }
+
+    // rewinds to the newest checkpoint and returns the scene to carry on from
+    private int undo(SceneGraph graph) {
+        Snapshot back = history.pop();
+        if (back == null) {
+            state.getOut().println("Nothing to undo.");
+            return state.getSceneIndex() != SceneGraph.UNKNOWN ? state.getSceneIndex() : graph.indexOf(state.getCurrentScene());
+        }
+        synchronized (state) {
+            state.restore(back);
+        }
+        state.getOut().println("[Undone. " + history.size() + " more step(s) can be undone.]");
+        return back.getSceneIndex() != SceneGraph.UNKNOWN ? back.getSceneIndex() : graph.indexOf(back.getScene());
+    }
+}
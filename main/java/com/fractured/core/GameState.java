@@ -5,10 +5,50 @@ import com.fractured.model.Player;
 public class GameState {
     private final Player player;
     private String currentScene;
+    private int sceneIndex = SceneGraph.UNKNOWN; // index of currentScene in the engine's graph, once resolved
+    // where scenes write their text; drained by the session after each step
+    private final SceneOutput out;
+    private Pacing pacing = Pacing.NORMAL;
 
-    public GameState(Player player) { this.player = player; }
+    public GameState(Player player) { this(player, new SceneOutput()); }
+
+    public GameState(Player player, SceneOutput out) {
+        this.player = player;
+        this.out = out;
+    }
 
     public Player getPlayer() { return player; }
     public String getCurrentScene() { return currentScene; }
-    public void setCurrentScene(String currentScene) { this.currentScene = currentScene; }
+    public void setCurrentScene(String currentScene) {
+        this.currentScene = currentScene;
+        this.sceneIndex = SceneGraph.UNKNOWN;
+    }
+    public int getSceneIndex() { return sceneIndex; }
+
+    /** Moves to a scene already resolved against the graph; {@code id} is its interned name. */
+    void moveTo(int index, String id) {
+        this.sceneIndex = index;
+        this.currentScene = id;
+    }
+    public SceneOutput getOut() { return out; }
+
+    /**
+     * Independent copy of this state (player, inventory, scene, pacing) that
+     * writes to {@code out}, for exploring a branch without touching this one.
+     */
+    public GameState fork(SceneOutput out) {
+        GameState c = new GameState(player.copy(), out);
+        c.currentScene = currentScene;
+        c.sceneIndex = sceneIndex;
+        c.pacing = pacing;
+        return c;
+    }
+    /** O(1) frozen copy of the scene and player, for undo and checkpoints. */
+    public Snapshot snapshot() { return new Snapshot(this); }
+
+    /** Rewinds to {@code s}, which may come from any state of the same game. */
+    public void restore(Snapshot s) { s.restore(this); }
+
+    public Pacing getPacing() { return pacing; }
+    public void setPacing(Pacing pacing) { this.pacing = pacing; }
 }
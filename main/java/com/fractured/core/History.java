@@ -0,0 +1,51 @@
+package com.fractured.core;
+
+import java.util.Arrays;
+
+/**
+ * Bounded ring of the last few {@link Snapshot}s of one session, newest
+ * on top. When full, pushing drops the oldest, so undo reaches back at
+ * most {@link #capacity()} checkpoints.
+ */
+public class History {
+    private final Snapshot[] ring;
+    private int top;   // slot the next push goes into
+    private int size;
+
+    public History(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("history capacity must be at least 1: " + capacity);
+        this.ring = new Snapshot[capacity];
+    }
+
+    public synchronized void push(Snapshot s) {
+        ring[top] = s;
+        top = (top + 1) % ring.length;
+        if (size < ring.length) size++;
+    }
+
+    /** Newest snapshot, removed from the ring; null when empty. */
+    public synchronized Snapshot pop() {
+        if (size == 0) return null;
+        top = (top - 1 + ring.length) % ring.length;
+        Snapshot s = ring[top];
+        ring[top] = null;
+        size--;
+        return s;
+    }
+
+    /** Snapshot {@code back} checkpoints ago (0 = newest), without removing it; null if older than the ring. */
+    public synchronized Snapshot peek(int back) {
+        if (back < 0 || back >= size) return null;
+        return ring[(top - 1 - back + 2 * ring.length) % ring.length];
+    }
+
+    public synchronized int size() { return size; }
+
+    public int capacity() { return ring.length; }
+
+    public synchronized void clear() {
+        Arrays.fill(ring, null);
+        top = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,91 @@
+package com.fractured.core;
+
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * Stand-in for a scene whose content lives outside the engine (a story
+ * file) and is only built once a session actually gets there. It knows just
+ * its id, targets and (if given) title, so the graph can be compiled and
+ * validated, and menus can name it, without loading anything; everything
+ * else is passed on to whatever scene its {@link Source} hands back, which
+ * may be dropped and loaded again later.
+ */
+public final class LazyScene extends Scene {
+
+    /** Where the real scene comes from. */
+    public interface Source {
+        /**
+         * The loaded scene for {@code id}, linked against {@code graph}
+         * (see {@link SceneGraph#link}).
+         */
+        Scene load(String id, SceneGraph graph);
+    }
+
+    private final Source source;
+    private final boolean titled; // false: the title is the loaded scene's
+    private volatile SceneGraph graph;
+
+    /**
+     * @param targets where the scene can lead, or null if that is only known
+     *                once it is loaded
+     */
+    public LazyScene(String id, List<String> targets, Source source) {
+        this(id, null, targets, source);
+    }
+
+    /**
+     * @param title   the scene's title, or null to load the scene to ask it
+     * @param targets where the scene can lead, or null if that is only known
+     *                once it is loaded
+     */
+    public LazyScene(String id, String title, List<String> targets, Source source) {
+        super(id, title != null ? title : id, targets == null ? null : targets.toArray(new String[0]));
+        this.source = source;
+        this.titled = title != null;
+    }
+
+    /**
+     * Loads (if needed) and returns the scene this one stands for.
+     *
+     * @throws IllegalStateException before the engine is frozen, or if the
+     *         scene cannot be loaded
+     */
+    public Scene resolve() {
+        SceneGraph g = graph;
+        if (g == null) throw new IllegalStateException("Scene graph not frozen yet, cannot load: " + getId());
+        return source.load(getId(), g);
+    }
+
+    @Override
+    public String getTitle() { return titled ? super.getTitle() : resolve().getTitle(); }
+
+    @Override
+    public boolean awaitsInput() { return resolve().awaitsInput(); }
+
+    @Override
+    public void prompt(GameState state) { resolve().prompt(state); }
+
+    @Override
+    public String resume(GameState state, String input) throws GameException {
+        return resolve().resume(state, input);
+    }
+
+    @Override
+    public String play(GameState state, Scanner in) throws GameException {
+        return resolve().play(state, in);
+    }
+
+    @Override
+    void link(SceneGraph graph) { this.graph = graph; }
+
+    @Override
+    int playIndexed(GameState state, SceneGraph graph) throws GameException {
+        return resolve().playIndexed(state, graph);
+    }
+
+    @Override
+    int resumeIndexed(GameState state, String input, SceneGraph graph) throws GameException {
+        return resolve().resumeIndexed(state, input, graph);
+    }
+}
@@ -0,0 +1,52 @@
+package com.fractured.core;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Plays output beats back with a delay between them on one scheduler
+ * thread shared by every session, instead of each session sleeping.
+ */
+public final class Pacer {
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "dialogue-pacer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private Pacer() { }
+
+    /**
+     * Sends the first beat to {@code sink} right away and each following beat
+     * one pacing delay later. The future completes after the last beat;
+     * INSTANT pacing delivers everything inline.
+     */
+    public static CompletableFuture<Void> deliver(List<String> beats, Pacing pacing, Consumer<String> sink) {
+        if (beats.isEmpty()) return CompletableFuture.completedFuture(null);
+        if (pacing.getDelayMs() == 0 || beats.size() == 1) {
+            for (String b : beats) sink.accept(b);
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        emit(beats, 0, pacing.getDelayMs(), sink, done);
+        return done;
+    }
+
+    private static void emit(List<String> beats, int i, long delayMs, Consumer<String> sink, CompletableFuture<Void> done) {
+        try {
+            sink.accept(beats.get(i));
+        } catch (RuntimeException e) {
+            done.completeExceptionally(e);
+            return;
+        }
+        if (i + 1 == beats.size()) {
+            done.complete(null);
+        } else {
+            TIMER.schedule(() -> emit(beats, i + 1, delayMs, sink, done), delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.fractured.core;
+
+/**
+ * How long to hold each dialogue beat before showing the next one.
+ * INSTANT is meant for headless runs, bots and tests.
+ */
+public enum Pacing {
+    INSTANT(0),
+    NORMAL(350),
+    SLOW(700);
+
+    private final long delayMs;
+
+    Pacing(long delayMs) { this.delayMs = delayMs; }
+
+    public long getDelayMs() { return delayMs; }
+
+    /**
+     * Parses a pacing name case-insensitively, falling back to NORMAL.
+     */
+    public static Pacing fromName(String name) {
+        if (name != null) {
+            for (Pacing p : values()) {
+                if (p.name().equalsIgnoreCase(name.trim())) return p;
+            }
+        }
+        return NORMAL;
+    }
+}
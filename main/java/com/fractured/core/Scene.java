@@ -1,22 +1,86 @@
 package com.fractured.core;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Scanner;
 
 public abstract class Scene {
     private final String id;
     private final String title;
+    private final List<String> outcomes; // null when the scene doesn't say where it can go
 
     protected Scene(String id, String title) {
+        this(id, title, (String[]) null);
+    }
+
+    /**
+     * For scenes that pick their next scene in code: {@code outcomes} lists
+     * every id {@link #play} may return (null meaning the story ends), so the
+     * graph validator can follow them.
+     */
+    protected Scene(String id, String title, String... outcomes) {
         this.id = id;
         this.title = title;
+        this.outcomes = outcomes == null ? null : Collections.unmodifiableList(Arrays.asList(outcomes.clone()));
     }
 
     public String getId(){ return id; }
     public String getTitle(){ return title; }
 
+    /**
+     * Every scene id this scene can lead to, or null if it decides in code
+     * and never declared its outcomes.
+     */
+    public List<String> getTargets() { return outcomes; }
+
+    /**
+     * Whether this scene stops to wait for a line of player input. Such scenes
+     * are driven through {@link #prompt} and {@link #resume} by the step API.
+     */
+    public boolean awaitsInput() { return false; }
+
+    /**
+     * Shows whatever the player has to see before answering. Only called
+     * when {@link #awaitsInput()} is true.
+     */
+    public void prompt(GameState state) { }
+
+    /**
+     * Finishes the scene with the player's answer and returns the next scene
+     * id. Only called when {@link #awaitsInput()} is true.
+     */
+    public String resume(GameState state, String input) throws GameException {
+        return play(state, null);
+    }
+
     /**
      * Play this scene. Must return the id of the next scene (or null to end).
      * Implementations may modify game state (player, inventory, sanity).
+     * When driven by {@link GameEngine#step} {@code in} is null, so scenes
+     * that need input must override {@link #awaitsInput()} instead of reading it.
      */
     public abstract String play(GameState state, Scanner in) throws GameException;
+
+    // --- compiled dispatch, used once the engine has frozen its SceneGraph ---
+
+    /**
+     * Resolves whatever targets this scene knows up front. Scenes that only
+     * learn their target inside {@link #play} have nothing to link.
+     */
+    void link(SceneGraph graph) { }
+
+    int playIndexed(GameState state, SceneGraph graph) throws GameException {
+        return indexOrFail(graph, play(state, null));
+    }
+
+    int resumeIndexed(GameState state, String input, SceneGraph graph) throws GameException {
+        return indexOrFail(graph, resume(state, input));
+    }
+
+    private static int indexOrFail(SceneGraph graph, String next) throws GameException {
+        int i = graph.indexOf(next);
+        if (i == SceneGraph.UNKNOWN) throw new GameException("No scene: " + next);
+        return i;
+    }
 }
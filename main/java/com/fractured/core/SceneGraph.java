@@ -0,0 +1,70 @@
+package com.fractured.core;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The frozen form of everything registered with a {@link GameEngine}. Every
+ * scene id is interned to a dense int, and dialogue/choice targets are
+ * resolved to those ints once at compile time, so moving between scenes is
+ * an array index instead of a string hash lookup. Targets that name no
+ * scene link to {@link #UNKNOWN}; {@link SceneGraphValidator} reports them.
+ */
+public final class SceneGraph {
+    /** Target index meaning "the story ends here" (a null next scene). */
+    public static final int END = -1;
+    /** Index returned by {@link #indexOf} for ids that were never registered. */
+    public static final int UNKNOWN = -2;
+
+    private final String[] ids;
+    private final Scene[] scenes;
+    private final Map<String, Integer> index;
+
+    private SceneGraph(List<Scene> registered) {
+        int n = registered.size();
+        this.ids = new String[n];
+        this.scenes = new Scene[n];
+        Map<String, Integer> idx = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            Scene s = registered.get(i);
+            ids[i] = s.getId();
+            scenes[i] = s;
+            idx.put(s.getId(), i);
+        }
+        this.index = Collections.unmodifiableMap(idx);
+    }
+
+    /**
+     * Interns the given scenes in order and links their targets.
+     */
+    static SceneGraph compile(List<Scene> registered) {
+        SceneGraph g = new SceneGraph(registered);
+        for (Scene s : g.scenes) s.link(g);
+        return g;
+    }
+
+    /**
+     * Resolves the targets of a scene built after the graph was compiled,
+     * e.g. one loaded on demand behind a {@link LazyScene}.
+     */
+    public void link(Scene s) { s.link(this); }
+
+    public int size() { return scenes.length; }
+
+    public int indexOf(String id) {
+        if (id == null) return END;
+        Integer i = index.get(id);
+        return i == null ? UNKNOWN : i;
+    }
+
+    public String idOf(int i) { return i < 0 ? null : ids[i]; }
+
+    public Scene scene(int i) { return scenes[i]; }
+
+    public Scene scene(String id) {
+        Integer i = index.get(id);
+        return i == null ? null : scenes[i];
+    }
+}
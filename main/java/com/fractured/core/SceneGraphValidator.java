@@ -0,0 +1,199 @@
+package com.fractured.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks a compiled {@link SceneGraph} for dangling targets, scenes nothing
+ * reaches from the start scene, loops with no way out, and duplicate ids.
+ *
+ * Target resolution is the per-scene part and runs in parallel, one task
+ * per act (scene ids are grouped by their "actN_" prefix). Reachability and
+ * the loop search are single linear passes over the resolved edges.
+ */
+public final class SceneGraphValidator {
+
+    private SceneGraphValidator() { }
+
+    public static ValidationReport validate(SceneGraph graph, String startId, Collection<String> duplicates) {
+        long t0 = System.nanoTime();
+        int n = graph.size();
+
+        // edges[i] == null: scene decides in code and declared nothing
+        int[][] edges = new int[n][];
+        List<List<String>> danglingPerAct = Collections.synchronizedList(new ArrayList<>());
+        groupByAct(graph).values().parallelStream().forEach(members -> {
+            List<String> dangling = new ArrayList<>();
+            for (int i : members) {
+                List<String> targets = graph.scene(i).getTargets();
+                if (targets == null) continue;
+                int[] e = new int[targets.size()];
+                for (int k = 0; k < e.length; k++) {
+                    String t = targets.get(k);
+                    e[k] = graph.indexOf(t);
+                    if (e[k] == SceneGraph.UNKNOWN) dangling.add(graph.idOf(i) + " -> " + t);
+                }
+                edges[i] = e;
+            }
+            danglingPerAct.add(dangling);
+        });
+
+        List<String> dangling = new ArrayList<>();
+        for (List<String> d : danglingPerAct) dangling.addAll(d);
+        Collections.sort(dangling);
+
+        List<String> opaque = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (edges[i] == null) opaque.add(graph.idOf(i));
+        }
+
+        List<String> unreachable = new ArrayList<>();
+        int start = graph.indexOf(startId);
+        if (start < 0) {
+            dangling.add("start -> " + startId);
+        } else {
+            boolean[] seen = reachableFrom(start, edges);
+            for (int i = 0; i < n; i++) {
+                if (!seen[i]) unreachable.add(graph.idOf(i));
+            }
+        }
+
+        List<List<String>> closedCycles = closedCycles(graph, edges);
+
+        return new ValidationReport(dangling, unreachable, closedCycles,
+                new ArrayList<>(duplicates), opaque, System.nanoTime() - t0);
+    }
+
+    private static Map<String, List<Integer>> groupByAct(SceneGraph graph) {
+        Map<String, List<Integer>> acts = new LinkedHashMap<>();
+        for (int i = 0; i < graph.size(); i++) {
+            String id = graph.idOf(i);
+            int cut = id.indexOf('_');
+            String act = cut > 0 ? id.substring(0, cut) : "";
+            acts.computeIfAbsent(act, k -> new ArrayList<>()).add(i);
+        }
+        return acts;
+    }
+
+    private static boolean[] reachableFrom(int start, int[][] edges) {
+        boolean[] seen = new boolean[edges.length];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        seen[start] = true;
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            int[] out = edges[queue.poll()];
+            if (out == null) continue;
+            for (int t : out) {
+                if (t >= 0 && !seen[t]) {
+                    seen[t] = true;
+                    queue.add(t);
+                }
+            }
+        }
+        return seen;
+    }
+
+    /**
+     * Strongly connected components (iterative Tarjan) that loop on
+     * themselves and have no edge out: no end, no other scene, no opaque
+     * scene that might escape.
+     */
+    private static List<List<String>> closedCycles(SceneGraph graph, int[][] edges) {
+        int n = edges.length;
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] comp = new int[n];
+        boolean[] onStack = new boolean[n];
+        Arrays.fill(index, -1);
+        int[] stack = new int[n];
+        int sp = 0;
+        int[] callNode = new int[n];
+        int[] callEdge = new int[n];
+        int counter = 0;
+        int comps = 0;
+        List<int[]> members = new ArrayList<>();
+
+        for (int root = 0; root < n; root++) {
+            if (index[root] != -1) continue;
+            int depth = 0;
+            callNode[0] = root;
+            callEdge[0] = 0;
+            index[root] = low[root] = counter++;
+            stack[sp++] = root;
+            onStack[root] = true;
+            while (depth >= 0) {
+                int v = callNode[depth];
+                int[] out = edges[v];
+                if (out != null && callEdge[depth] < out.length) {
+                    int w = out[callEdge[depth]++];
+                    if (w < 0) continue;
+                    if (index[w] == -1) {
+                        index[w] = low[w] = counter++;
+                        stack[sp++] = w;
+                        onStack[w] = true;
+                        depth++;
+                        callNode[depth] = w;
+                        callEdge[depth] = 0;
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+                if (low[v] == index[v]) {
+                    int start = sp;
+                    do {
+                        start--;
+                    } while (stack[start] != v);
+                    int[] c = Arrays.copyOfRange(stack, start, sp);
+                    for (int m : c) {
+                        onStack[m] = false;
+                        comp[m] = comps;
+                    }
+                    sp = start;
+                    members.add(c);
+                    comps++;
+                }
+                depth--;
+                if (depth >= 0) {
+                    int parent = callNode[depth];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+            }
+        }
+
+        List<List<String>> closed = new ArrayList<>();
+        for (int c = 0; c < comps; c++) {
+            int[] ms = members.get(c);
+            boolean loops = ms.length > 1;
+            boolean exits = false;
+            for (int m : ms) {
+                int[] out = edges[m];
+                if (out == null) {
+                    exits = true;
+                    break;
+                }
+                for (int t : out) {
+                    if (t < 0 || comp[t] != c) {
+                        exits = true;
+                        break;
+                    }
+                    if (t == m) loops = true;
+                }
+                if (exits) break;
+            }
+            if (loops && !exits) {
+                List<String> ids = new ArrayList<>(ms.length);
+                for (int m : ms) ids.add(graph.idOf(m));
+                Collections.sort(ids);
+                closed.add(ids);
+            }
+        }
+        return closed;
+    }
+}
@@ -0,0 +1,95 @@
+package com.fractured.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per-session output buffer. Scenes print into it as they would to
+ * System.out and call {@link #pause()} where the text should breathe;
+ * the session drains it as a list of beats that a {@link Pacer} plays back
+ * on a timer, so no scene ever sleeps on its own thread.
+ */
+public class SceneOutput extends PrintStream {
+    private final ByteArrayOutputStream buf; // null when discarding
+    private final List<Integer> beats = new ArrayList<>(); // byte offsets followed by a pause
+
+    public SceneOutput() {
+        this(new ByteArrayOutputStream(256));
+    }
+
+    private SceneOutput(ByteArrayOutputStream buf) {
+        super(buf != null ? buf : OutputStream.nullOutputStream(), false, StandardCharsets.UTF_8);
+        this.buf = buf;
+    }
+
+    /**
+     * Output that throws everything away without encoding it, for headless runs.
+     */
+    public static SceneOutput discarding() {
+        return new SceneOutput(null);
+    }
+
+    public boolean isDiscarding() { return buf == null; }
+
+    @Override
+    public void print(String s) {
+        if (buf != null) super.print(s);
+    }
+
+    @Override
+    public void println(String s) {
+        if (buf != null) super.println(s);
+    }
+
+    @Override
+    public void println(Object o) {
+        if (buf != null) super.println(o);
+    }
+
+    @Override
+    public void println() {
+        if (buf != null) super.println();
+    }
+
+    /**
+     * Marks a pacing pause after everything printed so far.
+     */
+    public synchronized void pause() {
+        if (buf == null) return;
+        flush();
+        int at = buf.size();
+        if (at > 0 && (beats.isEmpty() || beats.get(beats.size() - 1) != at)) {
+            beats.add(at);
+        }
+    }
+
+    /**
+     * Takes the buffered text as beats, in order, and empties the buffer.
+     */
+    public synchronized List<String> drain() {
+        if (buf == null) return Collections.emptyList();
+        flush();
+        if (buf.size() == 0) {
+            beats.clear();
+            return Collections.emptyList();
+        }
+        byte[] bytes = buf.toByteArray();
+        List<String> chunks = new ArrayList<>(beats.size() + 1);
+        int from = 0;
+        for (int at : beats) {
+            chunks.add(new String(bytes, from, at - from, StandardCharsets.UTF_8));
+            from = at;
+        }
+        if (from < bytes.length) {
+            chunks.add(new String(bytes, from, bytes.length - from, StandardCharsets.UTF_8));
+        }
+        buf.reset();
+        beats.clear();
+        return chunks;
+    }
+}
@@ -0,0 +1,147 @@
+package com.fractured.core;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fractured.threads.Lapati;
+import com.fractured.threads.VirtualThreads;
+
+/**
+ * Runs many independent playthroughs in one JVM against a single frozen
+ * {@link GameEngine}. Each session gets a (virtual, when available) thread
+ * of its own; Lapati whispers for all sessions share one scheduler thread.
+ */
+public class SessionHost implements AutoCloseable {
+    private static final long WHISPER_PERIOD_MS = 15000;
+
+    private final GameEngine engine;
+    private final ExecutorService executor = VirtualThreads.newPerTaskExecutor();
+    private final ScheduledExecutorService whispers = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "lapati-whispers");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicInteger active = new AtomicInteger();
+    private final Map<GameSession, Runnable> opened = new ConcurrentHashMap<>(); // step-driven session -> release
+    private final LongAdder started = new LongAdder();
+    private final long baselineHeap;
+
+    public SessionHost(GameEngine engine) {
+        this.engine = engine;
+        engine.freeze();
+        this.baselineHeap = usedHeap();
+    }
+
+    /**
+     * Starts a session reading player input from {@code in} and writing all
+     * scene output to {@code out}. The returned future completes when the
+     * playthrough ends.
+     */
+    public Future<?> host(GameState state, InputStream in, OutputStream out) {
+        PrintStream sink = new PrintStream(out, true, StandardCharsets.UTF_8);
+        GameSession session = new GameSession(engine, state, new Scanner(in, StandardCharsets.UTF_8), sink);
+        ScheduledFuture<?> whisper = scheduleWhispers(session, new Lapati(state, sink));
+
+        active.incrementAndGet();
+        started.increment();
+        return executor.submit(() -> {
+            try {
+                session.run();
+            } finally {
+                whisper.cancel(false);
+                active.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Opens a session that is driven from outside with {@link GameEngine#step}
+     * rather than parking a thread on input. Whispers show up in the output of
+     * the next step. Pass it to {@link #close(GameSession)} when done with it.
+     */
+    public GameSession open(GameState state) {
+        GameSession session = new GameSession(engine, state);
+        Lapati lapati = new Lapati(state);
+        ScheduledFuture<?> whisper = scheduleWhispers(session, lapati);
+
+        active.incrementAndGet();
+        started.increment();
+        opened.put(session, () -> {
+            whisper.cancel(false);
+            lapati.stop();
+            active.decrementAndGet();
+        });
+        return session;
+    }
+
+    /**
+     * Releases a session from {@link #open}: stops its whispers and stops
+     * counting it as active. Safe to call twice; a finished session is also
+     * released on its next whisper tick.
+     */
+    public void close(GameSession session) {
+        Runnable release = opened.remove(session);
+        if (release != null) release.run();
+    }
+
+    private ScheduledFuture<?> scheduleWhispers(GameSession session, Lapati lapati) {
+        ScheduledFuture<?>[] self = new ScheduledFuture<?>[1];
+        self[0] = whispers.scheduleAtFixedRate(() -> {
+            if (session.isFinished()) {
+                lapati.stop();
+                self[0].cancel(false);
+                close(session);
+            } else {
+                lapati.whisper();
+            }
+        }, WHISPER_PERIOD_MS, WHISPER_PERIOD_MS, TimeUnit.MILLISECONDS);
+        return self[0];
+    }
+
+    public int activeSessions() { return active.get(); }
+
+    public long startedSessions() { return started.sum(); }
+
+    /**
+     * Rough heap cost per live session: heap growth since the host was
+     * created divided by the sessions currently running.
+     */
+    public long heapPerSessionBytes() {
+        int n = active.get();
+        if (n == 0) return 0;
+        return Math.max(0, usedHeap() - baselineHeap) / n;
+    }
+
+    public String report() {
+        String r = String.format("sessions active=%d started=%d virtualThreads=%s heap/session~%dB | %s",
+                activeSessions(), startedSessions(), VirtualThreads.available(),
+                heapPerSessionBytes(), engine.getStepStats().summary());
+        return engine.getAutosaves() == null ? r : r + " | " + engine.getAutosaves().metrics();
+    }
+
+    @Override
+    public void close() {
+        opened.keySet().forEach(this::close);
+        executor.shutdownNow();
+        whispers.shutdownNow();
+        engine.flushAutosaves();
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
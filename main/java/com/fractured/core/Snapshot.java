@@ -0,0 +1,45 @@
+package com.fractured.core;
+
+import com.fractured.model.Player;
+
+/**
+ * Frozen copy of where a {@link GameState} stood: scene, pacing, player name,
+ * sanity and items. Taking one is O(1) because the player copy shares its
+ * inventory arrays copy-on-write, and nothing ever writes to the copy held
+ * here, so one snapshot can be restored or forked any number of times.
+ */
+public final class Snapshot {
+    private final Player player;
+    private final String scene;
+    private final int sceneIndex;
+    private final Pacing pacing;
+
+    Snapshot(GameState state) {
+        this.player = state.getPlayer().copy();
+        this.scene = state.getCurrentScene();
+        this.sceneIndex = state.getSceneIndex();
+        this.pacing = state.getPacing();
+    }
+
+    public String getScene() { return scene; }
+    public int getSanity() { return player.getSanity(); }
+    public String getPlayerName() { return player.getName(); }
+
+    int getSceneIndex() { return sceneIndex; }
+
+    /** Puts {@code state} back where this snapshot was taken. */
+    void restore(GameState state) {
+        state.getPlayer().restoreFrom(player);
+        if (sceneIndex == SceneGraph.UNKNOWN) state.setCurrentScene(scene);
+        else state.moveTo(sceneIndex, scene);
+    }
+
+    /** A new, independent state starting from this snapshot, with the pacing it had. */
+    public GameState fork(SceneOutput out) {
+        GameState c = new GameState(player.copy(), out);
+        c.setCurrentScene(scene);
+        if (sceneIndex != SceneGraph.UNKNOWN) c.moveTo(sceneIndex, scene);
+        c.setPacing(pacing);
+        return c;
+    }
+}
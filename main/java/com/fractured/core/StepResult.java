@@ -0,0 +1,30 @@
+package com.fractured.core;
+
+import java.util.List;
+
+/**
+ * What one call to {@link GameEngine#step} produced: the text rendered since
+ * the previous step, the scene the session now sits in, and whether it is
+ * waiting for the player or has ended. The text is kept as dialogue beats
+ * so a front end can pace it with {@link Pacer}; headless callers can just
+ * read {@link #getOutput()}.
+ */
+public class StepResult {
+    private final List<String> beats;
+    private final String sceneId;
+    private final boolean awaitingInput;
+    private final boolean ended;
+
+    public StepResult(List<String> beats, String sceneId, boolean awaitingInput, boolean ended) {
+        this.beats = beats;
+        this.sceneId = sceneId;
+        this.awaitingInput = awaitingInput;
+        this.ended = ended;
+    }
+
+    public String getOutput() { return String.join("", beats); }
+    public List<String> getBeats() { return beats; }
+    public String getSceneId() { return sceneId; }
+    public boolean isAwaitingInput() { return awaitingInput; }
+    public boolean isEnded() { return ended; }
+}
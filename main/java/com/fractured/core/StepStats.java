@@ -0,0 +1,52 @@
+package com.fractured.core;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Scene-step latency counters shared by every session of an engine.
+ * Recording is lock-free; percentiles come from power-of-two buckets so
+ * they are only accurate to within a factor of two.
+ */
+public class StepStats {
+    private final LongAdder steps = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0L);
+    private final AtomicLongArray buckets = new AtomicLongArray(64);
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        steps.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        buckets.incrementAndGet(63 - Long.numberOfLeadingZeros(nanos | 1));
+    }
+
+    public long count() { return steps.sum(); }
+
+    public long meanNanos() {
+        long n = steps.sum();
+        return n == 0 ? 0 : totalNanos.sum() / n;
+    }
+
+    public long maxNanos() { return maxNanos.get(); }
+
+    /** Upper bound of the bucket holding the given percentile (0..100). */
+    public long percentileNanos(double pct) {
+        long n = steps.sum();
+        if (n == 0) return 0;
+        long target = (long) Math.ceil(n * pct / 100.0);
+        long seen = 0;
+        for (int i = 0; i < 64; i++) {
+            seen += buckets.get(i);
+            if (seen >= target) return i == 63 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+        }
+        return maxNanos();
+    }
+
+    public String summary() {
+        return String.format("steps=%d mean=%.1fus p99<=%.1fus max=%.1fus",
+                count(), meanNanos() / 1000.0, percentileNanos(99) / 1000.0, maxNanos() / 1000.0);
+    }
+}
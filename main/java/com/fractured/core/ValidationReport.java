@@ -0,0 +1,66 @@
+package com.fractured.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Findings of a {@link SceneGraphValidator} pass. Dangling targets are
+ * errors; everything else is a warning the story still runs with.
+ */
+public class ValidationReport {
+    private final List<String> dangling;
+    private final List<String> unreachable;
+    private final List<List<String>> closedCycles;
+    private final List<String> duplicates;
+    private final List<String> opaque;
+    private final long elapsedNanos;
+
+    ValidationReport(List<String> dangling, List<String> unreachable, List<List<String>> closedCycles,
+                     List<String> duplicates, List<String> opaque, long elapsedNanos) {
+        this.dangling = Collections.unmodifiableList(dangling);
+        this.unreachable = Collections.unmodifiableList(unreachable);
+        this.closedCycles = Collections.unmodifiableList(closedCycles);
+        this.duplicates = Collections.unmodifiableList(duplicates);
+        this.opaque = Collections.unmodifiableList(opaque);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /** Edges "from -> target" whose target was never registered. */
+    public List<String> getDangling() { return dangling; }
+
+    /** Scenes that no path from the start scene reaches. */
+    public List<String> getUnreachable() { return unreachable; }
+
+    /** Groups of scenes that lead only to each other, so play can never leave them. */
+    public List<List<String>> getClosedCycles() { return closedCycles; }
+
+    /** Ids registered more than once; the last registration won. */
+    public List<String> getDuplicates() { return duplicates; }
+
+    /** Scenes that choose their target in code without declaring their outcomes. */
+    public List<String> getOpaque() { return opaque; }
+
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    public boolean hasErrors() { return !dangling.isEmpty(); }
+
+    public boolean isClean() {
+        return dangling.isEmpty() && unreachable.isEmpty() && closedCycles.isEmpty()
+                && duplicates.isEmpty() && opaque.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("[Scene graph] %d dangling, %d unreachable, %d closed loops, %d duplicates, %d opaque (%.1f ms)",
+                dangling.size(), unreachable.size(), closedCycles.size(), duplicates.size(), opaque.size(),
+                elapsedNanos / 1_000_000.0));
+        for (String d : dangling) lines.add("  dangling target: " + d);
+        for (List<String> c : closedCycles) lines.add("  no way out of: " + String.join(" -> ", c));
+        for (String d : duplicates) lines.add("  registered twice: " + d);
+        if (!unreachable.isEmpty()) lines.add("  unreachable: " + String.join(", ", unreachable));
+        if (!opaque.isEmpty()) lines.add("  undeclared outcomes: " + String.join(", ", opaque));
+        return String.join(System.lineSeparator(), lines);
+    }
+}
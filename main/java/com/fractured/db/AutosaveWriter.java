@@ -0,0 +1,169 @@
+package com.fractured.db;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import com.fractured.core.GameState;
+import com.fractured.core.SceneOutput;
+import com.fractured.core.Snapshot;
+import com.fractured.core.StepStats;
+
+/**
+ * Write-behind autosave. {@link #submit} takes an O(1) snapshot and returns
+ * at once; a background thread writes pending saves every interval, or
+ * sooner once {@code threshold} sessions have one waiting. Only the newest
+ * snapshot per session is kept, so a player racing through scenes costs
+ * one write per flush rather than one per scene.
+ *
+ * {@link #flush()} writes everything pending before it returns and is what
+ * callers use when the last state has to be on disk. With batching on in
+ * the DAO, one flush goes out as a single group commit.
+ */
+public class AutosaveWriter implements AutoCloseable {
+    public static final long DEFAULT_INTERVAL_MS = 1000;
+    public static final int DEFAULT_THRESHOLD = 64;
+
+    private final SaveStore store;
+    private final long intervalNanos;
+    private final int threshold;
+    // newest unsaved snapshot per session, keyed by the session's state (identity)
+    private final Map<GameState, Pending> pending = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object(); // one flush at a time, so saves land in order
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final StepStats flushLatency = new StepStats();
+    private volatile Thread worker;
+    private volatile boolean closed;
+
+    public AutosaveWriter(SaveStore store) { this(store, DEFAULT_INTERVAL_MS, DEFAULT_THRESHOLD); }
+
+    public AutosaveWriter(SaveStore store, long intervalMs, int threshold) {
+        if (intervalMs <= 0 || threshold < 1) {
+            throw new IllegalArgumentException("interval and threshold must be positive: " + intervalMs + ", " + threshold);
+        }
+        this.store = store;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+        this.threshold = threshold;
+    }
+
+    /** Queues {@code state} to be saved as {@code saveName}, replacing anything still pending for it. */
+    public void submit(String saveName, GameState state) {
+        if (closed) {
+            // too late for the writer thread; keep the old synchronous behaviour
+            await(save(new Pending(saveName, state.snapshot())));
+            return;
+        }
+        submitted.increment();
+        if (pending.put(state, new Pending(saveName, state.snapshot())) != null) coalesced.increment();
+        if (closed) {
+            flush(); // lost a race with close(), which may already have flushed
+            return;
+        }
+        Thread w = worker;
+        if (w == null) w = startWorker();
+        if (pending.size() >= threshold) LockSupport.unpark(w);
+    }
+
+    /**
+     * Writes every pending save now, on the calling thread, and returns how
+     * many were written. Failures are counted and reported, not thrown.
+     */
+    public int flush() {
+        synchronized (flushLock) {
+            if (pending.isEmpty()) return 0;
+            long t0 = System.nanoTime();
+            List<CompletableFuture<Void>> saves = new ArrayList<>(pending.size());
+            for (GameState key : pending.keySet()) {
+                Pending p = pending.remove(key);
+                if (p != null) saves.add(save(p));
+            }
+            int n = 0;
+            for (CompletableFuture<Void> f : saves) {
+                if (await(f)) n++;
+            }
+            flushLatency.record(System.nanoTime() - t0);
+            return n;
+        }
+    }
+
+    /** Stops the writer thread and flushes whatever is still pending. */
+    @Override
+    public void close() {
+        closed = true;
+        Thread w = worker;
+        if (w != null) {
+            LockSupport.unpark(w);
+            try {
+                w.join(TimeUnit.NANOSECONDS.toMillis(intervalNanos) + 5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    public int queueDepth() { return pending.size(); }
+    public long submittedCount() { return submitted.sum(); }
+    public long coalescedCount() { return coalesced.sum(); }
+    public long writtenCount() { return written.sum(); }
+    public long failedCount() { return failed.sum(); }
+    public StepStats getFlushLatency() { return flushLatency; }
+
+    public String metrics() {
+        return String.format("autosave queued=%d submitted=%d coalesced=%d written=%d failed=%d flushes=%d mean=%.1fms max=%.1fms",
+                queueDepth(), submittedCount(), coalescedCount(), writtenCount(), failedCount(),
+                flushLatency.count(), flushLatency.meanNanos() / 1e6, flushLatency.maxNanos() / 1e6);
+    }
+
+    private CompletableFuture<Void> save(Pending p) {
+        return store.saveAsync(p.saveName, p.snapshot.fork(SceneOutput.discarding()));
+    }
+
+    private boolean await(CompletableFuture<Void> f) {
+        try {
+            f.join();
+            written.increment();
+            return true;
+        } catch (CompletionException e) {
+            failed.increment();
+            // log but do not stop the game
+            System.err.println("Warning: failed to autosave: " + e.getCause().getMessage());
+            return false;
+        }
+    }
+
+    private synchronized Thread startWorker() {
+        if (worker != null) return worker;
+        Thread t = new Thread(this::drainLoop, "autosave-writer");
+        t.setDaemon(true); // shutdown goes through close(), not through waiting on this thread
+        t.start();
+        worker = t;
+        return t;
+    }
+
+    private void drainLoop() {
+        while (!closed) {
+            LockSupport.parkNanos(this, intervalNanos);
+            flush();
+        }
+    }
+
+    private static final class Pending {
+        final String saveName;
+        final Snapshot snapshot;
+
+        Pending(String saveName, Snapshot snapshot) {
+            this.saveName = saveName;
+            this.snapshot = snapshot;
+        }
+    }
+}
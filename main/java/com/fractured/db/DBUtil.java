@@ -2,36 +2,218 @@ package com.fractured.db;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
-public class DBUtil {
+/**
+ * Small connection manager for the save database. Connections are opened
+ * lazily, up to {@code poolSize}, and then kept for the life of the game
+ * with WAL journaling on; each one caches the statements prepared on it.
+ * Borrow one with {@link #lease()} in a try-with-resources block.
+ */
+public class DBUtil implements AutoCloseable {
 
     private static final String URL = "jdbc:sqlite:fractured.db";
+    private static final int POOL_SIZE = 4;
+    private static final int STATEMENTS_PER_CONNECTION = 32;
+    private static final long LEASE_TIMEOUT_MS = 10_000;
 
-    public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL);
+    // applied to every connection as it is opened
+    private static final String[] PRAGMAS = {
+        "PRAGMA journal_mode=WAL",     // readers don't block the autosave writer
+        "PRAGMA synchronous=NORMAL",   // with WAL, only a power cut can lose the last commits
+        "PRAGMA busy_timeout=5000",    // wait for the write lock instead of failing with SQLITE_BUSY
+        "PRAGMA temp_store=MEMORY",
+        "PRAGMA foreign_keys=ON",
+    };
+
+    private final String url;
+    private final int poolSize;
+    private final BlockingQueue<Pooled> idle;
+    private int opened;          // guarded by this
+    private volatile boolean closed;
+
+    public DBUtil() { this(URL, POOL_SIZE); }
+
+    public DBUtil(String url, int poolSize) {
+        if (poolSize < 1) throw new IllegalArgumentException("pool size must be at least 1: " + poolSize);
+        this.url = url;
+        this.poolSize = poolSize;
+        this.idle = new ArrayBlockingQueue<>(poolSize);
     }
 
+    public String getUrl() { return url; }
+
+    /**
+     * A fresh, unpooled connection with the same pragmas, for one-off work
+     * such as schema changes. The caller closes it.
+     */
+    public Connection openConnection() throws SQLException {
+        Connection c = DriverManager.getConnection(url);
+        try (Statement st = c.createStatement()) {
+            for (String pragma : PRAGMAS) st.execute(pragma);
+        } catch (SQLException e) {
+            c.close();
+            throw e;
+        }
+        return c;
+    }
+
+    /** Borrows a pooled connection, waiting for one if all are in use. */
+    public Lease lease() throws SQLException {
+        if (closed) throw new SQLException("database closed");
+        Pooled p = idle.poll();
+        if (p == null) p = openIfRoom();
+        if (p == null) {
+            try {
+                p = idle.poll(LEASE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("interrupted waiting for a connection", e);
+            }
+            if (p == null) throw new SQLException("no free connection after " + LEASE_TIMEOUT_MS + " ms");
+        }
+        return new Lease(p);
+    }
+
+    private synchronized Pooled openIfRoom() throws SQLException {
+        if (opened >= poolSize) return null;
+        Pooled p = new Pooled(openConnection());
+        opened++;
+        return p;
+    }
+
+    private void giveBack(Pooled p) {
+        boolean healthy; // a lease left mid-transaction isn't trusted with the next one
+        try {
+            healthy = !p.conn.isClosed() && p.conn.getAutoCommit();
+        } catch (SQLException e) {
+            healthy = false;
+        }
+        if (healthy && !closed && idle.offer(p)) return;
+        p.close();
+        synchronized (this) { opened--; }
+    }
+
+    /** Closes every idle connection; leased ones close as they come back. */
+    @Override
+    public void close() {
+        closed = true;
+        Pooled p;
+        while ((p = idle.poll()) != null) {
+            p.close();
+            synchronized (this) { opened--; }
+        }
+    }
+
+    /** Brings the database up to the newest schema, see {@link SchemaMigrations}. */
     @SuppressWarnings("CallToPrintStackTrace")
-    public static void initializeSchema() {
-        String sql = """
-            CREATE TABLE IF NOT EXISTS saves (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                save_name TEXT NOT NULL,
-                player_name TEXT,
-                current_scene TEXT,
-                inventory TEXT,
-                created_at DATETIME DEFAULT CURRENT_TIMESTAMP
-            );
-        """;
-
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
+    public void initializeSchema() {
+        try {
+            migrateTo(SchemaMigrations.latestVersion());
             System.out.println("✔ Database initialized");
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
+
+    /** Schema version of the database, 0 for a fresh file. */
+    public int schemaVersion() throws SQLException {
+        try (Connection conn = openConnection()) {
+            return SchemaMigrations.currentVersion(conn);
+        }
+    }
+
+    /** Newest schema version {@link #initializeSchema} migrates to. */
+    public static int latestSchemaVersion() { return SchemaMigrations.latestVersion(); }
+
+    /** Migrates up to {@code version} only, e.g. to benchmark an older schema; returns the version reached. */
+    public int migrateTo(int version) throws SQLException {
+        try (Connection conn = openConnection()) {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("PRAGMA auto_vacuum")) {
+                // freed pages go back to the file only with incremental vacuum, and switching needs one full VACUUM
+                if (rs.next() && rs.getInt(1) != 2) {
+                    stmt.execute("PRAGMA auto_vacuum=INCREMENTAL");
+                    stmt.execute("VACUUM");
+                }
+            }
+            return SchemaMigrations.migrate(conn, version);
+        }
+    }
+
+    /**
+     * A borrowed connection. Statements from {@link #prepare} are cached on
+     * the connection, so close their ResultSets but not the statements
+     * themselves; closing the lease hands the connection back.
+     */
+    public final class Lease implements AutoCloseable {
+        private Pooled pooled;
+
+        private Lease(Pooled pooled) { this.pooled = pooled; }
+
+        public Connection connection() { return live().conn; }
+
+        /** The statement for {@code sql}, prepared once per connection and reused. */
+        public PreparedStatement prepare(String sql) throws SQLException {
+            Pooled p = live();
+            PreparedStatement ps = p.statements.get(sql);
+            if (ps == null || ps.isClosed()) {
+                ps = p.conn.prepareStatement(sql);
+                p.statements.put(sql, ps);
+            } else {
+                ps.clearParameters();
+            }
+            return ps;
+        }
+
+        private Pooled live() {
+            if (pooled == null) throw new IllegalStateException("lease already closed");
+            return pooled;
+        }
+
+        @Override
+        public void close() {
+            if (pooled == null) return;
+            Pooled p = pooled;
+            pooled = null;
+            giveBack(p);
+        }
+    }
+
+    private static final class Pooled {
+        final Connection conn;
+        // access order, so the least recently used statement is closed when the cache is full
+        final Map<String, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= STATEMENTS_PER_CONNECTION) return false;
+                quietly(eldest.getValue());
+                return true;
+            }
+        };
+
+        Pooled(Connection conn) { this.conn = conn; }
+
+        void close() {
+            for (PreparedStatement ps : statements.values()) quietly(ps);
+            statements.clear();
+            quietly(conn);
+        }
+
+        private static void quietly(AutoCloseable c) {
+            try {
+                c.close();
+            } catch (Exception ignored) {
+                // closing anyway
+            }
+        }
+    }
 }
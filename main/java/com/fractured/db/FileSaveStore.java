@@ -0,0 +1,464 @@
+package com.fractured.db;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+import com.fractured.core.GameState;
+
+/**
+ * Saves appended to memory-mapped segment files in a directory, without
+ * SQLite. Every save (or delete) is one record written straight into the
+ * mapping of the newest segment; once the next record won't fit, a new
+ * segment is started. Which record holds each slot is kept in memory and
+ * rebuilt by scanning the segments when the store is opened.
+ *
+ * Record layout, big-endian:
+ * <pre>
+ *   int   length of the rest, 0 past the last record
+ *   int   CRC32C of everything after it
+ *   byte  kind (1 save, 2 delete)
+ *   long  stamp, increasing over the whole store
+ *   short player name length, UTF-8 bytes
+ *   short slot name length, UTF-8 bytes
+ *   ...   the save, as {@link SaveCodec} writes it (empty for a delete)
+ * </pre>
+ *
+ * Recovery: the scan stops at the first record whose length or checksum
+ * is wrong, which is what a crash halfway through a write leaves behind,
+ * and cuts the segment off there. Overwritten saves are garbage; {@link
+ * #compact()} rewrites the live records of mostly-garbage segments into
+ * the newest one and deletes the old files. Records keep their stamp when
+ * moved, so a scan after a crash mid-compaction still picks the newest.
+ *
+ * Writes land in the page cache; {@link #sync()}, rolling a segment and
+ * closing force them to disk.
+ */
+public class FileSaveStore implements SaveStore {
+    public static final int DEFAULT_SEGMENT_BYTES = 16 << 20;
+    /** Segments with less than this share still live are compacted. */
+    public static final double COMPACT_BELOW = 0.5;
+
+    private static final byte SAVE = 1;
+    private static final byte DELETE = 2;
+    // length, crc, kind, stamp
+    private static final int HEADER = 4 + 4 + 1 + 8;
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+    // player -> slot -> where its save is; this and the segments are guarded by this
+    private final Map<String, Map<String, Location>> index = new HashMap<>();
+    private final CRC32C crc = new CRC32C();
+    private Segment tail;
+    private long stamp;
+    private boolean closed;
+    private ScheduledExecutorService timer;
+    private int compactions;
+    private long reclaimed;
+
+    public FileSaveStore(Path dir) throws IOException { this(dir, DEFAULT_SEGMENT_BYTES); }
+
+    public FileSaveStore(Path dir, int segmentBytes) throws IOException {
+        if (segmentBytes < (64 << 10) || segmentBytes > (1 << 30)) {
+            throw new IllegalArgumentException("segment size out of range: " + segmentBytes);
+        }
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(dir);
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "*.seg")) {
+            for (Path f : ds) files.add(f);
+        }
+        Collections.sort(files);
+        Map<String, Long> graves = new HashMap<>(); // newest delete per slot, while scanning
+        for (int i = 0; i < files.size(); i++) {
+            Path f = files.get(i);
+            int id = Integer.parseInt(f.getFileName().toString().replace(".seg", ""));
+            Segment seg = new Segment(id, f, FileChannel.open(f, StandardOpenOption.READ, StandardOpenOption.WRITE));
+            segments.put(id, seg);
+            recover(seg, graves, i == files.size() - 1);
+        }
+        if (segments.isEmpty()) {
+            roll();
+        } else {
+            tail = segments.lastEntry().getValue();
+            tail.map(Math.max(segmentBytes, tail.used));
+        }
+    }
+
+    @Override
+    public void save(String slot, GameState state) throws IOException {
+        String player = state.getPlayer().getName();
+        byte[] body = SaveCodec.encode(state, false); // outside the lock, it is most of the work
+        synchronized (this) {
+            append(SAVE, ++stamp, player, slot, body);
+        }
+    }
+
+    @Override
+    public GameState loadLatest(String playerName) throws IOException {
+        Location at = null;
+        Segment seg;
+        synchronized (this) {
+            checkOpen();
+            Map<String, Location> slots = index.get(playerName);
+            if (slots == null) return null;
+            for (Location l : slots.values()) {
+                if (at == null || l.stamp > at.stamp) at = l;
+            }
+            seg = segments.get(at.segment);
+        }
+        return read(seg, at, playerName);
+    }
+
+    @Override
+    public GameState load(String playerName, String slot) throws IOException {
+        Location at;
+        Segment seg;
+        synchronized (this) {
+            checkOpen();
+            Map<String, Location> slots = index.get(playerName);
+            at = slots == null ? null : slots.get(slot);
+            if (at == null) return null;
+            seg = segments.get(at.segment);
+        }
+        return read(seg, at, playerName);
+    }
+
+    @Override
+    public synchronized List<String> listSlots(String playerName) {
+        Map<String, Location> slots = index.get(playerName);
+        if (slots == null) return List.of();
+        List<String> names = new ArrayList<>(slots.keySet());
+        Collections.sort(names);
+        return names;
+    }
+
+    @Override
+    public synchronized boolean delete(String playerName, String slot) throws IOException {
+        Map<String, Location> slots = index.get(playerName);
+        if (slots == null || !slots.containsKey(slot)) return false;
+        append(DELETE, ++stamp, playerName, slot, new byte[0]);
+        return true;
+    }
+
+    /** Forces everything written so far to disk. */
+    public synchronized void sync() {
+        if (!closed) tail.buf.force();
+    }
+
+    /** Runs {@link #compact()} every {@code period} on a daemon thread. */
+    public synchronized void startCompaction(Duration period) {
+        if (timer != null || closed) return;
+        timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "save-log-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+        long ms = period.toMillis();
+        timer.scheduleWithFixedDelay(() -> {
+            try {
+                compact();
+            } catch (IOException e) {
+                System.err.println("Warning: save log compaction failed: " + e.getMessage());
+            }
+        }, ms, ms, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Moves the live records out of every full segment that is mostly
+     * garbage and deletes it. Saves and loads carry on meanwhile; each
+     * record is moved under the lock, one at a time. Returns bytes freed.
+     */
+    public long compact() throws IOException {
+        List<Segment> victims = new ArrayList<>();
+        synchronized (this) {
+            checkOpen();
+            for (Segment s : segments.values()) {
+                if (s != tail && s.live < s.used * COMPACT_BELOW) victims.add(s);
+            }
+        }
+        long freed = 0;
+        for (Segment s : victims) {
+            // sealed segments never change, so they can be read without the lock
+            for (int pos = 0; pos < s.used; ) {
+                Record r = Record.at(s.buf, pos);
+                synchronized (this) {
+                    if (closed) return freed;
+                    Map<String, Location> slots = index.get(r.player);
+                    Location cur = slots == null ? null : slots.get(r.slot);
+                    if (r.kind == SAVE) {
+                        if (cur != null && cur.segment == s.id && cur.record == pos) {
+                            append(SAVE, r.stamp, r.player, r.slot, r.body(s.buf));
+                        }
+                    } else if (segments.firstKey() != s.id && (cur == null || cur.stamp < r.stamp)) {
+                        // an older segment may still hold the save this delete hides
+                        append(DELETE, r.stamp, r.player, r.slot, new byte[0]);
+                    }
+                }
+                pos += r.size;
+            }
+            synchronized (this) {
+                if (closed) return freed;
+                tail.buf.force(); // the copies are on disk before the originals go
+                segments.remove(s.id);
+                freed += s.used;
+                compactions++;
+                reclaimed += s.used;
+            }
+            // readers may still hold the mapping; it stays valid after the file is gone
+            s.channel.close();
+            Files.deleteIfExists(s.file);
+        }
+        return freed;
+    }
+
+    /** Bytes of records over all segments, overwritten saves included. */
+    public synchronized long sizeOnDisk() {
+        long n = 0;
+        for (Segment s : segments.values()) n += s.used;
+        return n;
+    }
+
+    public synchronized String metrics() {
+        long live = 0;
+        for (Segment s : segments.values()) live += s.live;
+        return String.format("save log segments=%d bytes=%d live=%d compactions=%d reclaimed=%d",
+                segments.size(), sizeOnDisk(), live, compactions, reclaimed);
+    }
+
+    @Override
+    public void close() {
+        ScheduledExecutorService t;
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            t = timer;
+            timer = null;
+        }
+        if (t != null) t.shutdownNow();
+        synchronized (this) {
+            tail.buf.force();
+            try {
+                // drop the zeroed space mapped ahead of the last record
+                tail.channel.truncate(tail.used);
+            } catch (IOException e) {
+                // harmless, the next scan stops at the zeros
+            }
+            for (Segment s : segments.values()) {
+                try {
+                    s.channel.close();
+                } catch (IOException ignored) {
+                    // closing anyway
+                }
+            }
+        }
+    }
+
+    // writes one record at the end of the tail; caller holds the lock
+    private void append(byte kind, long st, String player, String slot, byte[] body) throws IOException {
+        checkOpen();
+        byte[] p = player.getBytes(StandardCharsets.UTF_8);
+        byte[] s = slot.getBytes(StandardCharsets.UTF_8);
+        if (p.length > Short.MAX_VALUE || s.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("player or slot name too long");
+        }
+        int size = HEADER + 2 + p.length + 2 + s.length + body.length;
+        if (size > segmentBytes) throw new IOException("save of " + size + " bytes does not fit a segment");
+        if (tail.used + size > segmentBytes) roll();
+
+        ByteBuffer b = tail.buf;
+        int at = tail.used;
+        b.position(at + 8);
+        b.put(kind).putLong(st)
+                .putShort((short) p.length).put(p)
+                .putShort((short) s.length).put(s)
+                .put(body);
+        crc.reset();
+        crc.update(b.duplicate().limit(at + size).position(at + 8));
+        b.putInt(at + 4, (int) crc.getValue());
+        b.putInt(at, size - 4); // last, so a record is only complete once it has a length
+        tail.used += size;
+
+        apply(kind, player, slot, new Location(tail.id, at, size, size - body.length, st));
+    }
+
+    private void apply(byte kind, String player, String slot, Location l) {
+        Map<String, Location> slots = index.computeIfAbsent(player, k -> new HashMap<>());
+        Location old = kind == SAVE ? slots.put(slot, l) : slots.remove(slot);
+        if (old != null) {
+            Segment s = segments.get(old.segment);
+            if (s != null) s.live -= old.size;
+        }
+        if (kind == SAVE) segments.get(l.segment).live += l.size;
+        else if (slots.isEmpty()) index.remove(player);
+    }
+
+    // rebuilds the index from one segment and cuts it off at the first bad record
+    private void recover(Segment seg, Map<String, Long> graves, boolean last) throws IOException {
+        long fileSize = seg.channel.size();
+        if (fileSize > Integer.MAX_VALUE) throw new IOException(seg.file + " is too large for a segment");
+        seg.map((int) fileSize);
+        int pos = 0;
+        boolean torn = false;
+        while (pos < fileSize) {
+            if (pos + HEADER > fileSize) {
+                torn = seg.buf.get(pos) != 0 || seg.buf.get((int) fileSize - 1) != 0;
+                break;
+            }
+            int length = seg.buf.getInt(pos);
+            if (length == 0) break; // mapped ahead but never written
+            int size = length + 4;
+            if (size < HEADER + 4 || pos + size > fileSize || !checksumOk(seg.buf, pos, size)) {
+                torn = true;
+                break;
+            }
+            Record r = Record.at(seg.buf, pos);
+            stamp = Math.max(stamp, r.stamp);
+            String key = r.player + '\0' + r.slot;
+            Map<String, Location> slots = index.get(r.player);
+            Location cur = slots == null ? null : slots.get(r.slot);
+            if (r.kind == SAVE) {
+                Long grave = graves.get(key);
+                if ((grave == null || grave < r.stamp) && (cur == null || cur.stamp < r.stamp)) {
+                    apply(SAVE, r.player, r.slot, new Location(seg.id, pos, size, r.bodyAt - pos, r.stamp));
+                }
+            } else {
+                graves.merge(key, r.stamp, Math::max);
+                if (cur != null && cur.stamp < r.stamp) apply(DELETE, r.player, r.slot, null);
+            }
+            pos += size;
+        }
+        seg.used = pos;
+        if (torn) {
+            System.err.println("Warning: torn record in " + seg.file.getFileName() + " at " + pos
+                    + (last ? "" : " (not the newest segment)") + ", cutting the segment there");
+        }
+        if (pos < fileSize) {
+            seg.buf = null; // no access past the new end
+            seg.channel.truncate(pos);
+            seg.map(pos);
+        }
+    }
+
+    private boolean checksumOk(ByteBuffer b, int at, int size) {
+        crc.reset();
+        crc.update(b.duplicate().limit(at + size).position(at + 8));
+        return (int) crc.getValue() == b.getInt(at + 4);
+    }
+
+    private GameState read(Segment seg, Location at, String playerName) throws IOException {
+        byte[] body = new byte[at.size - at.bodyOffset];
+        seg.buf.get(at.record + at.bodyOffset, body);
+        try {
+            return SaveCodec.decode(body);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new IOException("unreadable save for " + playerName + " in segment " + at.segment + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void roll() throws IOException {
+        int id = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+        if (tail != null) tail.buf.force();
+        Path f = dir.resolve(String.format("%06d.seg", id));
+        Segment seg = new Segment(id, f, FileChannel.open(f,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        seg.map(segmentBytes);
+        segments.put(id, seg);
+        tail = seg;
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) throw new IOException("save store is closed: " + dir);
+    }
+
+    private static final class Segment {
+        final int id;
+        final Path file;
+        final FileChannel channel;
+        MappedByteBuffer buf;
+        int used;  // bytes of records
+        long live; // bytes of records the index points at
+
+        Segment(int id, Path file, FileChannel channel) {
+            this.id = id;
+            this.file = file;
+            this.channel = channel;
+        }
+
+        // mapping past the end of the file grows it with zeros
+        void map(int bytes) throws IOException {
+            buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        }
+    }
+
+    private static final class Location {
+        final int segment;
+        final int record;     // offset of the record in its segment
+        final int size;       // whole record
+        final int bodyOffset; // of the save, from the start of the record
+        final long stamp;
+
+        Location(int segment, int record, int size, int bodyOffset, long stamp) {
+            this.segment = segment;
+            this.record = record;
+            this.size = size;
+            this.bodyOffset = bodyOffset;
+            this.stamp = stamp;
+        }
+    }
+
+    // one record's header, parsed
+    private static final class Record {
+        byte kind;
+        long stamp;
+        String player;
+        String slot;
+        int start;
+        int bodyAt;
+        int size;
+
+        static Record at(ByteBuffer b, int pos) {
+            Record r = new Record();
+            r.start = pos;
+            r.size = b.getInt(pos) + 4;
+            r.kind = b.get(pos + 8);
+            r.stamp = b.getLong(pos + 9);
+            int at = pos + HEADER;
+            byte[] p = new byte[b.getShort(at)];
+            b.get(at + 2, p);
+            at += 2 + p.length;
+            byte[] s = new byte[b.getShort(at)];
+            b.get(at + 2, s);
+            at += 2 + s.length;
+            r.player = new String(p, StandardCharsets.UTF_8);
+            r.slot = new String(s, StandardCharsets.UTF_8);
+            r.bodyAt = at;
+            return r;
+        }
+
+        byte[] body(ByteBuffer b) {
+            byte[] body = new byte[start + size - bodyAt];
+            b.get(bodyAt, body);
+            return body;
+        }
+    }
+}
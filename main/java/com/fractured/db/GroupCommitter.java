@@ -0,0 +1,119 @@
+package com.fractured.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for saves. Requests from every session queue up here; one
+ * thread takes the first, keeps collecting for {@code windowMs} (or until
+ * {@code maxBatch} are in hand), then writes them all with one JDBC batch
+ * in one transaction and completes every caller's future after the commit.
+ */
+class GroupCommitter implements AutoCloseable {
+    private final DBUtil db;
+    private final String sql;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final LinkedBlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private volatile boolean closed;
+
+    GroupCommitter(DBUtil db, String sql, long windowMs, int maxBatch) {
+        if (windowMs < 0 || maxBatch < 1) {
+            throw new IllegalArgumentException("bad group commit settings: window " + windowMs + " ms, batch " + maxBatch);
+        }
+        this.db = db;
+        this.sql = sql;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.maxBatch = maxBatch;
+        this.thread = new Thread(this::loop, "save-group-commit");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    CompletableFuture<Void> submit(SaveDAO.Row row) {
+        Request r = new Request(row);
+        if (closed) {
+            r.done.completeExceptionally(new SQLException("save batching stopped"));
+        } else {
+            queue.add(r);
+        }
+        return r.done;
+    }
+
+    /** Stops taking requests; ones already queued are still written. */
+    @Override
+    public void close() {
+        closed = true;
+        thread.interrupt();
+        try {
+            thread.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void loop() {
+        List<Request> batch = new ArrayList<>(maxBatch);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Request first = closed ? queue.poll() : queue.take();
+                if (first == null) break;
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatch && !closed) {
+                    long left = deadline - System.nanoTime();
+                    Request r = left > 0 ? queue.poll(left, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (r == null) break;
+                    batch.add(r);
+                }
+            } catch (InterruptedException e) {
+                // close() wakes us; fall through and write what we have
+            }
+            queue.drainTo(batch, maxBatch - batch.size());
+            if (!batch.isEmpty()) write(batch);
+            batch.clear();
+        }
+        // anything that slipped in after the last batch
+        Request r;
+        while ((r = queue.poll()) != null) r.done.completeExceptionally(new SQLException("save batching stopped"));
+    }
+
+    private void write(List<Request> batch) {
+        try (DBUtil.Lease lease = db.lease()) {
+            Connection conn = lease.connection();
+            conn.setAutoCommit(false);
+            try {
+                PreparedStatement ps = lease.prepare(sql);
+                for (Request r : batch) {
+                    r.row.bind(ps);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            for (Request r : batch) r.done.completeExceptionally(e);
+            return;
+        }
+        for (Request r : batch) r.done.complete(null);
+    }
+
+    private static final class Request {
+        final SaveDAO.Row row;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Request(SaveDAO.Row row) { this.row = row; }
+    }
+}
@@ -0,0 +1,153 @@
+package com.fractured.db;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.fractured.core.GameState;
+
+/**
+ * Saves kept in the heap, for simulations, bots and anything else that
+ * should not touch the disk. Players are spread over lock stripes, so
+ * sessions only contend when their names hash to the same stripe.
+ *
+ * Saves are held encoded (see {@link SaveCodec}) rather than as live
+ * objects: the copy is taken when saving, and a load always hands out a
+ * fresh state the caller is free to change.
+ */
+public class MemorySaveStore implements SaveStore {
+    public static final int DEFAULT_STRIPES = 16;
+
+    private final Stripe[] stripes;
+    private final int mask;
+    // orders saves across slots for loadLatest
+    private final AtomicLong clock = new AtomicLong();
+
+    public MemorySaveStore() { this(DEFAULT_STRIPES); }
+
+    /** @param stripes lock stripes, rounded up to a power of two */
+    public MemorySaveStore(int stripes) {
+        if (stripes < 1) throw new IllegalArgumentException("stripes must be positive: " + stripes);
+        int n = Integer.highestOneBit(stripes);
+        if (n < stripes) n <<= 1;
+        this.stripes = new Stripe[n];
+        for (int i = 0; i < n; i++) this.stripes[i] = new Stripe();
+        this.mask = n - 1;
+    }
+
+    @Override
+    public void save(String slot, GameState state) {
+        String player = state.getPlayer().getName();
+        // encode outside the lock; it is most of the work
+        Entry e = new Entry(SaveCodec.encode(state, false), clock.incrementAndGet());
+        Stripe s = stripe(player);
+        s.lock.writeLock().lock();
+        try {
+            s.players.computeIfAbsent(player, k -> new HashMap<>()).put(slot, e);
+        } finally {
+            s.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public GameState loadLatest(String playerName) {
+        Entry latest = null;
+        Stripe s = stripe(playerName);
+        s.lock.readLock().lock();
+        try {
+            Map<String, Entry> slots = s.players.get(playerName);
+            if (slots == null) return null;
+            for (Entry e : slots.values()) {
+                if (latest == null || e.stamp > latest.stamp) latest = e;
+            }
+        } finally {
+            s.lock.readLock().unlock();
+        }
+        return latest == null ? null : SaveCodec.decode(latest.state);
+    }
+
+    @Override
+    public GameState load(String playerName, String slot) {
+        Entry e;
+        Stripe s = stripe(playerName);
+        s.lock.readLock().lock();
+        try {
+            Map<String, Entry> slots = s.players.get(playerName);
+            e = slots == null ? null : slots.get(slot);
+        } finally {
+            s.lock.readLock().unlock();
+        }
+        return e == null ? null : SaveCodec.decode(e.state);
+    }
+
+    @Override
+    public List<String> listSlots(String playerName) {
+        List<String> names;
+        Stripe s = stripe(playerName);
+        s.lock.readLock().lock();
+        try {
+            Map<String, Entry> slots = s.players.get(playerName);
+            if (slots == null) return List.of();
+            names = new ArrayList<>(slots.keySet());
+        } finally {
+            s.lock.readLock().unlock();
+        }
+        Collections.sort(names);
+        return names;
+    }
+
+    @Override
+    public boolean delete(String playerName, String slot) {
+        Stripe s = stripe(playerName);
+        s.lock.writeLock().lock();
+        try {
+            Map<String, Entry> slots = s.players.get(playerName);
+            if (slots == null || slots.remove(slot) == null) return false;
+            if (slots.isEmpty()) s.players.remove(playerName);
+            return true;
+        } finally {
+            s.lock.writeLock().unlock();
+        }
+    }
+
+    /** Saves held, over all players and slots. */
+    public int size() {
+        int n = 0;
+        for (Stripe s : stripes) {
+            s.lock.readLock().lock();
+            try {
+                for (Map<String, Entry> slots : s.players.values()) n += slots.size();
+            } finally {
+                s.lock.readLock().unlock();
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public void close() { }
+
+    private Stripe stripe(String player) {
+        int h = player.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    private static final class Stripe {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final Map<String, Map<String, Entry>> players = new HashMap<>();
+    }
+
+    private static final class Entry {
+        final byte[] state;
+        final long stamp;
+
+        Entry(byte[] state, long stamp) {
+            this.state = state;
+            this.stamp = stamp;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.fractured.db;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The database's table of scene and item names, so save blobs can refer to
+ * them by small varint ids. Ids are assigned on first use and never change.
+ * Lookups are served from memory; only a name this database has never seen
+ * costs a round trip.
+ */
+class NameDictionary implements SaveCodec.Names {
+    private final DBUtil db;
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, String> names = new ConcurrentHashMap<>();
+
+    NameDictionary(DBUtil db) { this.db = db; }
+
+    @Override
+    public int id(String name) {
+        Integer id = ids.get(name);
+        return id != null ? id : assign(name);
+    }
+
+    @Override
+    public String name(int id) {
+        String name = names.get(id);
+        if (name == null) {
+            reload(); // written by another process, or before this one started
+            name = names.get(id);
+            if (name == null) throw new IllegalArgumentException("unknown name id " + id);
+        }
+        return name;
+    }
+
+    private synchronized int assign(String name) {
+        Integer id = ids.get(name);
+        if (id != null) return id;
+        try (DBUtil.Lease lease = db.lease()) {
+            PreparedStatement insert = lease.prepare("INSERT OR IGNORE INTO names(name) VALUES (?)");
+            insert.setString(1, name);
+            insert.executeUpdate();
+            PreparedStatement select = lease.prepare("SELECT id FROM names WHERE name = ?");
+            select.setString(1, name);
+            try (ResultSet rs = select.executeQuery()) {
+                rs.next();
+                int assigned = rs.getInt(1);
+                names.put(assigned, name);
+                ids.put(name, assigned);
+                return assigned;
+            }
+        } catch (SQLException e) {
+            // callers encode saves; surface it as the save failing
+            throw new IllegalStateException("cannot intern name '" + name + "': " + e.getMessage(), e);
+        }
+    }
+
+    // everything in the table, not just what this process has used
+    synchronized void reload() {
+        try (DBUtil.Lease lease = db.lease();
+             ResultSet rs = lease.prepare("SELECT id, name FROM names").executeQuery()) {
+            while (rs.next()) {
+                names.put(rs.getInt(1), rs.getString(2));
+                ids.put(rs.getString(2), rs.getInt(1));
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("cannot read name table: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.fractured.db;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fractured.core.GameState;
+import com.fractured.core.SceneOutput;
+import com.fractured.core.Snapshot;
+
+/**
+ * Each player's latest save, held as a {@link Snapshot} in front of
+ * {@link SaveDAO#loadLatestForPlayer}, least recently used first out.
+ * Saves made through the DAO replace the entry once they are written,
+ * newest capture winning, so a hit is what the database would return.
+ * Saves written by anything else (another process, a second DAO) are not
+ * seen.
+ *
+ * Misses are single-flight: while one thread reads a player from the
+ * database, others asking for the same player wait for that read instead
+ * of running their own, so a reconnect storm costs one query per player.
+ * "No save" is cached as well.
+ */
+final class SaveCache {
+    interface Loader {
+        GameState load(String playerName) throws SQLException;
+    }
+
+    private final int capacity;
+    // access order, so the eldest is the least recently used; guarded by this
+    private final LinkedHashMap<String, Entry> entries;
+    private final Map<String, Flight> loading = new HashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+    private long hits, misses, waits, evictions;
+
+    SaveCache(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("cache size must be positive: " + capacity);
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= SaveCache.this.capacity) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /** Orders saves by when they were captured; taken before the save is written. */
+    long stamp() { return clock.incrementAndGet(); }
+
+    GameState load(String playerName, Loader loader) throws SQLException {
+        Flight flight;
+        synchronized (this) {
+            Entry e = entries.get(playerName);
+            if (e != null) {
+                hits++;
+                return e.open();
+            }
+            flight = loading.get(playerName);
+            if (flight != null) {
+                waits++;
+            } else {
+                misses++;
+                flight = new Flight();
+                loading.put(playerName, flight);
+                flight.owner = true;
+            }
+        }
+        if (!flight.owner) return flight.await();
+
+        GameState gs;
+        try {
+            gs = loader.load(playerName);
+        } catch (SQLException | RuntimeException e) {
+            synchronized (this) {
+                loading.remove(playerName);
+            }
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+        Snapshot snap = gs == null ? null : gs.snapshot();
+        synchronized (this) {
+            loading.remove(playerName);
+            // a save landed while we were reading; it is newer than what we read
+            if (!flight.superseded && !entries.containsKey(playerName)) entries.put(playerName, new Entry(snap, 0));
+        }
+        flight.result.complete(snap);
+        return gs;
+    }
+
+    /** A save of the player's, captured at {@code stamp}, has been written. */
+    synchronized void saved(String playerName, Snapshot snap, long stamp) {
+        Flight f = loading.get(playerName);
+        if (f != null) f.superseded = true;
+        Entry e = entries.get(playerName);
+        if (e != null && e.stamp > stamp) return; // a later capture got written first
+        entries.put(playerName, new Entry(snap, stamp));
+    }
+
+    /** Forgets the player, e.g. after their saves were deleted. */
+    synchronized void invalidate(String playerName) {
+        Flight f = loading.get(playerName);
+        if (f != null) f.superseded = true;
+        entries.remove(playerName);
+    }
+
+    synchronized int size() { return entries.size(); }
+
+    synchronized String metrics() {
+        long lookups = hits + misses + waits;
+        return String.format("save cache size=%d/%d hits=%d misses=%d waits=%d evictions=%d hitRate=%.1f%%",
+                entries.size(), capacity, hits, misses, waits, evictions,
+                lookups == 0 ? 0.0 : 100.0 * (hits + waits) / lookups);
+    }
+
+    private static final class Entry {
+        final Snapshot snap; // null: the player has no save
+        final long stamp;    // 0 when read from the database
+
+        Entry(Snapshot snap, long stamp) {
+            this.snap = snap;
+            this.stamp = stamp;
+        }
+
+        GameState open() { return snap == null ? null : snap.fork(new SceneOutput()); }
+    }
+
+    // one database read that other threads can wait on
+    private static final class Flight {
+        final CompletableFuture<Snapshot> result = new CompletableFuture<>();
+        boolean owner;               // set before anyone else can see the flight
+        volatile boolean superseded; // guarded by the cache; don't keep what was read
+
+        GameState await() throws SQLException {
+            try {
+                Snapshot snap = result.join();
+                return snap == null ? null : snap.fork(new SceneOutput());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof SQLException) throw (SQLException) e.getCause();
+                throw new SQLException("save lookup failed: " + e.getCause(), e.getCause());
+            }
+        }
+    }
+}
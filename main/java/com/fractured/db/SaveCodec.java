@@ -0,0 +1,356 @@
+package com.fractured.db;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.fractured.core.GameState;
+import com.fractured.core.Pacing;
+import com.fractured.model.Inventory;
+import com.fractured.model.ItemCatalog;
+import com.fractured.model.Player;
+
+/**
+ * Binary save format, stored in the {@code state} BLOB column.
+ *
+ * <pre>
+ *   byte    'F'
+ *   byte    format version (1)
+ *   byte    flags: bit 0 = body is deflated
+ *   body    tagged fields, each a varint key (field &lt;&lt; 3 | wire type)
+ *           followed by a varint (type 0) or a varint length and bytes (type 2)
+ * </pre>
+ *
+ * Decoders skip fields they don't know, so later versions can add fields
+ * and older games still load their saves. Scene and item names are written
+ * as varint ids from a {@link Names} table when one is given (the database
+ * keeps one, see {@link NameDictionary}), and inline otherwise;
+ * {@link ItemCatalog} ids are handed out per run, so they are never
+ * persisted. The player name is left to the row. Everything is written
+ * and read by hand, no reflection or object streams.
+ */
+public final class SaveCodec {
+    static final byte MAGIC = 'F';
+    static final byte VERSION = 1;
+    static final int FLAG_DEFLATED = 1;
+    // bodies smaller than this aren't worth a deflate pass
+    static final int COMPRESS_THRESHOLD = 256;
+
+    // field numbers; never reuse one
+    private static final int F_SCENE = 1;      // UTF-8 name
+    private static final int F_PLAYER = 2;     // UTF-8 name
+    private static final int F_SANITY = 3;
+    private static final int F_ITEM = 4;       // repeated: varint count, then UTF-8 name
+    private static final int F_PACING = 5;     // varint, see PACING_CODES
+    private static final int F_SCENE_ID = 6;   // varint id in Names
+    private static final int F_ITEM_IDS = 7;   // packed (id, count) varint pairs, ids in Names
+
+    // stable codes for Pacing, independent of the enum's declaration order
+    private static final Pacing[] PACING_CODES = { Pacing.NORMAL, Pacing.INSTANT, Pacing.SLOW };
+
+    /** Persistent name ids for scenes and items. */
+    public interface Names {
+        int id(String name);
+        String name(int id);
+    }
+
+    private static final int VARINT = 0;
+    private static final int BYTES = 2;
+
+    private SaveCodec() { }
+
+    /** Self-contained encoding: names inline, player name included. */
+    public static byte[] encode(GameState state, boolean compress) { return encode(state, null, compress); }
+
+    /**
+     * Encodes {@code state}. With {@code names}, scene and items go in as
+     * ids and the player name is left out (the saves row has it).
+     */
+    public static byte[] encode(GameState state, Names names, boolean compress) {
+        Player p = state.getPlayer();
+        Out out = new Out(32);
+        out.put(MAGIC);
+        out.put(VERSION);
+        out.put((byte) 0);
+        String scene = state.getCurrentScene();
+        if (scene != null) {
+            if (names != null) {
+                out.key(F_SCENE_ID, VARINT);
+                out.varint(names.id(scene));
+            } else {
+                out.string(F_SCENE, scene);
+            }
+        }
+        if (names == null && p.getName() != null) out.string(F_PLAYER, p.getName());
+        out.key(F_SANITY, VARINT);
+        out.varint(p.getSanity());
+        Inventory inv = p.getInventory();
+        if (names != null) {
+            if (inv.size() > 0) {
+                Out packed = new Out(16);
+                for (int id = inv.next(0); id >= 0; id = inv.next(id + 1)) {
+                    packed.varint(names.id(ItemCatalog.name(id)));
+                    packed.varint(inv.count(id));
+                }
+                out.key(F_ITEM_IDS, BYTES);
+                out.varint(packed.size);
+                out.put(packed.buf, 0, packed.size);
+            }
+        } else {
+            for (int id = inv.next(0); id >= 0; id = inv.next(id + 1)) {
+                byte[] name = ItemCatalog.name(id).getBytes(StandardCharsets.UTF_8);
+                int count = inv.count(id);
+                out.key(F_ITEM, BYTES);
+                out.varint(varintSize(count) + name.length);
+                out.varint(count);
+                out.put(name, 0, name.length);
+            }
+        }
+        if (state.getPacing() != Pacing.NORMAL) {
+            out.key(F_PACING, VARINT);
+            out.varint(Arrays.asList(PACING_CODES).indexOf(state.getPacing()));
+        }
+
+        if (compress && out.size - 3 >= COMPRESS_THRESHOLD) {
+            byte[] packed = deflate(out.buf, 3, out.size - 3);
+            if (packed.length + 3 < out.size) {
+                byte[] r = new byte[3 + packed.length];
+                r[0] = MAGIC;
+                r[1] = VERSION;
+                r[2] = FLAG_DEFLATED;
+                System.arraycopy(packed, 0, r, 3, packed.length);
+                return r;
+            }
+        }
+        return out.toArray();
+    }
+
+    public static GameState decode(byte[] data) { return decode(data, null); }
+
+    /** Decodes a blob; {@code names} resolves ids and may be null for self-contained blobs. */
+    public static GameState decode(byte[] data, Names names) {
+        In in = body(data);
+        Player p = new Player(null);
+        GameState st = new GameState(p);
+        String scene = null;
+        while (in.pos < in.end) {
+            int key = (int) in.varint();
+            int field = key >>> 3;
+            int type = key & 7;
+            switch (field) {
+                case F_SCENE:
+                    scene = in.string();
+                    break;
+                case F_PLAYER:
+                    p.setName(in.string());
+                    break;
+                case F_SANITY:
+                    p.setSanity((int) in.varint());
+                    break;
+                case F_ITEM:
+                    item(in, p.getInventory());
+                    break;
+                case F_PACING: {
+                    int code = (int) in.varint();
+                    st.setPacing(code >= 0 && code < PACING_CODES.length ? PACING_CODES[code] : Pacing.NORMAL);
+                    break;
+                }
+                case F_SCENE_ID:
+                    scene = names(names).name((int) in.varint());
+                    break;
+                case F_ITEM_IDS:
+                    itemIds(in, names, p.getInventory());
+                    break;
+                default:
+                    in.skip(type); // from a newer version
+            }
+        }
+        st.setCurrentScene(scene);
+        return st;
+    }
+
+    /**
+     * Just the inventory of a blob, for listings: every other field is
+     * skipped, and no state or player is built.
+     */
+    public static Inventory inventory(byte[] data, Names names) {
+        In in = body(data);
+        Inventory inv = new Inventory();
+        while (in.pos < in.end) {
+            int key = (int) in.varint();
+            int field = key >>> 3;
+            if (field == F_ITEM) item(in, inv);
+            else if (field == F_ITEM_IDS) itemIds(in, names, inv);
+            else in.skip(key & 7);
+        }
+        return inv;
+    }
+
+    // past the header, inflated if need be
+    private static In body(byte[] data) {
+        if (data.length < 3 || data[0] != MAGIC) throw new IllegalArgumentException("not a save blob");
+        // data[1] may be a newer version: fields are tagged, so it still reads
+        if ((data[2] & FLAG_DEFLATED) != 0) {
+            byte[] body = inflate(data, 3, data.length - 3);
+            return new In(body, 0, body.length);
+        }
+        return new In(data, 3, data.length);
+    }
+
+    private static void item(In in, Inventory inv) {
+        int stop = in.span();
+        int count = (int) in.varint();
+        String name = new String(in.buf, in.pos, stop - in.pos, StandardCharsets.UTF_8);
+        in.pos = stop;
+        int id = ItemCatalog.id(name);
+        for (int i = 0; i < count; i++) inv.add(id);
+    }
+
+    private static void itemIds(In in, Names names, Inventory inv) {
+        int stop = in.span();
+        while (in.pos < stop) {
+            int id = ItemCatalog.id(names(names).name((int) in.varint()));
+            for (int c = (int) in.varint(); c > 0; c--) inv.add(id);
+        }
+    }
+
+    private static Names names(Names names) {
+        if (names == null) throw new IllegalArgumentException("save blob uses name ids but no name table was given");
+        return names;
+    }
+
+    static int varintSize(long v) {
+        int n = 1;
+        while ((v & ~0x7FL) != 0) {
+            v >>>= 7;
+            n++;
+        }
+        return n;
+    }
+
+    private static byte[] deflate(byte[] b, int off, int len) {
+        Deflater d = new Deflater(Deflater.BEST_SPEED);
+        try {
+            d.setInput(b, off, len);
+            d.finish();
+            byte[] out = new byte[len + 16];
+            int n = 0;
+            while (!d.finished()) {
+                if (n == out.length) out = Arrays.copyOf(out, out.length * 2);
+                n += d.deflate(out, n, out.length - n);
+            }
+            return Arrays.copyOf(out, n);
+        } finally {
+            d.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] b, int off, int len) {
+        Inflater inf = new Inflater();
+        try {
+            inf.setInput(b, off, len);
+            byte[] out = new byte[len * 4];
+            int n = 0;
+            while (!inf.finished()) {
+                if (n == out.length) out = Arrays.copyOf(out, out.length * 2);
+                int got = inf.inflate(out, n, out.length - n);
+                if (got == 0 && (inf.needsInput() || inf.needsDictionary())) {
+                    throw new IllegalArgumentException("truncated save blob");
+                }
+                n += got;
+            }
+            return Arrays.copyOf(out, n);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("corrupt save blob: " + e.getMessage(), e);
+        } finally {
+            inf.end();
+        }
+    }
+
+    // growable byte buffer; ByteArrayOutputStream would lock on every write
+    private static final class Out {
+        byte[] buf;
+        int size;
+
+        Out(int capacity) { buf = new byte[capacity]; }
+
+        void put(byte b) {
+            if (size == buf.length) buf = Arrays.copyOf(buf, size * 2);
+            buf[size++] = b;
+        }
+
+        void put(byte[] b, int off, int len) {
+            if (size + len > buf.length) buf = Arrays.copyOf(buf, Math.max(size * 2, size + len));
+            System.arraycopy(b, off, buf, size, len);
+            size += len;
+        }
+
+        void varint(long v) {
+            while ((v & ~0x7FL) != 0) {
+                put((byte) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            put((byte) v);
+        }
+
+        void key(int field, int type) { varint((field << 3) | type); }
+
+        void string(int field, String s) {
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            key(field, BYTES);
+            varint(b.length);
+            put(b, 0, b.length);
+        }
+
+        byte[] toArray() { return Arrays.copyOf(buf, size); }
+    }
+
+    private static final class In {
+        final byte[] buf;
+        final int end;
+        int pos;
+
+        In(byte[] buf, int pos, int end) {
+            this.buf = buf;
+            this.pos = pos;
+            this.end = end;
+        }
+
+        long varint() {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (pos >= end) throw new IllegalArgumentException("truncated save blob");
+                byte b = buf[pos++];
+                v |= (long) (b & 0x7F) << shift;
+                if (b >= 0) return v;
+            }
+            throw new IllegalArgumentException("varint too long in save blob");
+        }
+
+        /** Reads a length and returns where that many bytes from here end, which must be inside the blob. */
+        int span() {
+            long len = varint(); // read before pos, which it moves
+            if (len < 0 || len > end - pos) throw new IllegalArgumentException("truncated save blob");
+            return pos + (int) len;
+        }
+
+        String string() {
+            int stop = span();
+            String s = new String(buf, pos, stop - pos, StandardCharsets.UTF_8);
+            pos = stop;
+            return s;
+        }
+
+        void skip(int type) {
+            if (type == VARINT) {
+                varint();
+            } else if (type == BYTES) {
+                pos = span();
+            } else {
+                throw new IllegalArgumentException("unknown wire type " + type + " in save blob");
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.fractured.db;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.fractured.core.GameState;
+import com.fractured.core.Pacing;
+import com.fractured.model.Inventory;
+import com.fractured.model.Player;
+
+/**
+ * Encode-then-decode check of {@link SaveCodec}, run with --check-codec.
+ * Every state goes through all four forms (self-contained or against a
+ * name table, deflated or not) and must come back with the same scene,
+ * sanity, pacing, items and, when self-contained, player name. The fixed
+ * cases cover the edges the format has tripped on: empty and missing
+ * fields, more than 64 distinct items, counts and names long enough for
+ * multi-byte varints, and bodies big enough to be deflated. Random states
+ * follow, from a fixed seed so a finding can be reproduced.
+ */
+public final class SaveCodecCheck {
+    private SaveCodecCheck() { }
+
+    /**
+     * @return one line per mismatch; empty if every round trip held
+     */
+    public static List<String> run(int samples) {
+        List<String> findings = new ArrayList<>();
+        Names names = new Names();
+
+        check("empty", state(null, null, 0, Pacing.NORMAL), names, findings);
+        check("full sanity", state("Elias", "act1_intro", 100, Pacing.NORMAL, "torch"), names, findings);
+        for (Pacing p : Pacing.values()) check("pacing " + p, state("Elias", "intro", 50, p, "torch"), names, findings);
+
+        GameState many = state("Elias", "act6_core", 37, Pacing.SLOW);
+        for (int i = 0; i < 80; i++) {
+            for (int c = 0; c <= i % 3; c++) many.getPlayer().getInventory().add("codec_check_item_" + i);
+        }
+        check("80 distinct items", many, names, findings);
+
+        GameState big = state("Élias — " + "x".repeat(200), "scene_" + "y".repeat(300), 1, Pacing.INSTANT);
+        for (int c = 0; c < 300; c++) big.getPlayer().getInventory().add("silver_locket");
+        big.getPlayer().getInventory().add("codec_check_" + "z".repeat(150));
+        check("long names, 300 copies", big, names, findings);
+        if ((SaveCodec.encode(many, true)[2] & SaveCodec.FLAG_DEFLATED) == 0) {
+            findings.add("80 distinct items: big body was not deflated");
+        }
+
+        // a field from a later version is skipped, not an error
+        byte[] plain = SaveCodec.encode(state("Elias", "intro", 70, Pacing.NORMAL, "torch"), false);
+        byte[] newer = Arrays.copyOf(plain, plain.length + 5);
+        newer[plain.length] = (byte) (15 << 3);     // field 15, varint
+        newer[plain.length + 1] = (byte) 0x96;
+        newer[plain.length + 2] = 0x01;
+        newer[plain.length + 3] = (byte) (14 << 3 | 2); // field 14, bytes
+        newer[plain.length + 4] = 0;
+        try {
+            compare("unknown fields", state("Elias", "intro", 70, Pacing.NORMAL, "torch"), SaveCodec.decode(newer), true, findings);
+        } catch (RuntimeException e) {
+            findings.add("unknown fields: " + e);
+        }
+        try {
+            SaveCodec.decode(Arrays.copyOf(plain, plain.length - 1));
+            findings.add("truncated blob: decoded without an error");
+        } catch (IllegalArgumentException expected) {
+            // the codec's way of saying so
+        } catch (RuntimeException e) {
+            findings.add("truncated blob: " + e + " instead of IllegalArgumentException");
+        }
+
+        Random rnd = new Random(42);
+        for (int i = 0; i < samples; i++) {
+            GameState s = state(rnd.nextInt(8) == 0 ? null : "player" + rnd.nextInt(1000),
+                    rnd.nextInt(16) == 0 ? null : "scene" + rnd.nextInt(5000),
+                    rnd.nextInt(Player.MAX_SANITY + 1), Pacing.values()[rnd.nextInt(Pacing.values().length)]);
+            for (int k = rnd.nextInt(rnd.nextInt(4) == 0 ? 120 : 6); k > 0; k--) {
+                s.getPlayer().getInventory().add("codec_check_item_" + rnd.nextInt(100));
+            }
+            check("random #" + i, s, names, findings);
+        }
+        return findings;
+    }
+
+    private static void check(String label, GameState s, Names names, List<String> findings) {
+        for (boolean compress : new boolean[] { false, true }) {
+            String form = label + (compress ? ", deflated" : "");
+            try {
+                compare(form + ", self-contained", s, SaveCodec.decode(SaveCodec.encode(s, compress)), true, findings);
+                byte[] blob = SaveCodec.encode(s, names, compress);
+                compare(form + ", name table", s, SaveCodec.decode(blob, names), false, findings);
+                List<String> listed = SaveCodec.inventory(blob, names).list();
+                if (!listed.equals(s.getPlayer().getInventory().list())) {
+                    findings.add(form + ", inventory only: " + listed + " != " + s.getPlayer().getInventory());
+                }
+            } catch (RuntimeException e) {
+                findings.add(form + ": " + e);
+            }
+        }
+    }
+
+    private static void compare(String form, GameState want, GameState got, boolean withName, List<String> findings) {
+        Player w = want.getPlayer(), g = got.getPlayer();
+        List<String> diffs = new ArrayList<>();
+        if (!equal(want.getCurrentScene(), got.getCurrentScene())) diffs.add("scene " + got.getCurrentScene());
+        if (withName && !equal(w.getName(), g.getName())) diffs.add("player " + g.getName());
+        if (w.getSanity() != g.getSanity()) diffs.add("sanity " + g.getSanity());
+        if (want.getPacing() != got.getPacing()) diffs.add("pacing " + got.getPacing());
+        Inventory wi = w.getInventory(), gi = g.getInventory();
+        if (wi.size() != gi.size() || !wi.list().equals(gi.list())) diffs.add("items " + gi);
+        if (!diffs.isEmpty()) findings.add(form + ": came back with " + String.join(", ", diffs));
+    }
+
+    private static GameState state(String player, String scene, int sanity, Pacing pacing, String... items) {
+        Player p = new Player(player);
+        p.setSanity(sanity);
+        for (String item : items) p.getInventory().add(item);
+        GameState s = new GameState(p);
+        s.setCurrentScene(scene);
+        s.setPacing(pacing);
+        return s;
+    }
+
+    private static boolean equal(String a, String b) { return a == null ? b == null : a.equals(b); }
+
+    // stands in for the database's NameDictionary; ids start high so they take more than one varint byte
+    private static final class Names implements SaveCodec.Names {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+
+        @Override
+        public int id(String name) {
+            return ids.computeIfAbsent(name, n -> {
+                names.add(n);
+                return 1000 + names.size() - 1;
+            });
+        }
+
+        @Override
+        public String name(int id) {
+            int i = id - 1000;
+            if (i < 0 || i >= names.size()) throw new IllegalArgumentException("no name " + id);
+            return names.get(i);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.fractured.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background retention for the saves table. Slot rings already keep it
+ * bounded; this deletes whatever is older than the history depth anyway
+ * (rows from before slots, slots saved with a larger depth) and hands the
+ * freed pages back to the file system with incremental vacuum.
+ *
+ * A slot whose rows all sit at ring positions below the depth cannot hold
+ * more than the depth, so only slots with a ringless row or a wider ring
+ * are looked at, and the pass is skipped when there are none.
+ *
+ * Both happen in small transactions, so an autosave waits at most one
+ * chunk for the write lock, and WAL keeps readers going throughout.
+ */
+public class SaveCompactor implements AutoCloseable {
+    private static final int DELETE_CHUNK = 500;  // rows per transaction
+    private static final int VACUUM_CHUNK = 256;  // pages per transaction
+
+    // rows that may be over the depth; finding them takes the saves_ring index
+    private static final String CANDIDATES = "SELECT COUNT(*) FROM saves WHERE ring IS NULL OR ring >= ?";
+    // gens are unique within a slot: anything below its depth-th newest gen goes (saves_slot_gen index);
+    // IS rather than = so rows from before player names were required still match their slot
+    private static final String PRUNE = """
+        DELETE FROM saves WHERE id IN (
+            SELECT s.id FROM (SELECT DISTINCT player_name, save_name FROM saves WHERE ring IS NULL OR ring >= ?) c
+            JOIN saves s ON s.player_name IS c.player_name AND s.save_name = c.save_name
+            WHERE s.gen < (SELECT t.gen FROM saves t WHERE t.player_name IS s.player_name AND t.save_name = s.save_name
+                           ORDER BY t.gen DESC LIMIT 1 OFFSET ?)
+            LIMIT ?
+        )
+        """;
+
+    private final DBUtil db;
+    private final int historyDepth;
+    private ScheduledExecutorService timer;
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong rowsDeleted = new AtomicLong();
+    private final AtomicLong pagesFreed = new AtomicLong();
+    private volatile long lastRunNanos;
+
+    public SaveCompactor(DBUtil db, int historyDepth) {
+        this.db = db;
+        this.historyDepth = historyDepth;
+    }
+
+    /** Runs {@link #runOnce()} every {@code period} on a daemon thread. */
+    public synchronized void start(Duration period) {
+        if (timer != null) return;
+        timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "save-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+        long ms = period.toMillis();
+        timer.scheduleWithFixedDelay(() -> {
+            try {
+                runOnce();
+            } catch (SQLException e) {
+                System.err.println("Warning: save compaction failed: " + e.getMessage());
+            }
+        }, ms, ms, TimeUnit.MILLISECONDS);
+    }
+
+    /** One pass: prune, then vacuum. Returns the number of rows deleted. */
+    public int runOnce() throws SQLException {
+        long t0 = System.nanoTime();
+        int deleted = 0;
+        long freed = 0;
+        try (DBUtil.Lease lease = db.lease()) {
+            PreparedStatement count = lease.prepare(CANDIDATES);
+            count.setInt(1, historyDepth);
+            long candidates;
+            try (ResultSet rs = count.executeQuery()) {
+                candidates = rs.next() ? rs.getLong(1) : 0;
+            }
+            if (candidates > 0) {
+                PreparedStatement ps = lease.prepare(PRUNE);
+                int n;
+                do {
+                    ps.setInt(1, historyDepth);
+                    ps.setInt(2, historyDepth - 1);
+                    ps.setInt(3, DELETE_CHUNK);
+                    n = ps.executeUpdate();
+                    deleted += n;
+                } while (n == DELETE_CHUNK);
+            }
+
+            Connection conn = lease.connection();
+            try (Statement st = conn.createStatement()) {
+                long free = pragma(st, "freelist_count");
+                while (free > 0) {
+                    st.execute("PRAGMA incremental_vacuum(" + VACUUM_CHUNK + ")");
+                    long left = pragma(st, "freelist_count");
+                    if (left >= free) break; // not in incremental mode, nothing more to give back
+                    freed += free - left;
+                    free = left;
+                }
+            }
+        }
+        runs.incrementAndGet();
+        rowsDeleted.addAndGet(deleted);
+        pagesFreed.addAndGet(freed);
+        lastRunNanos = System.nanoTime() - t0;
+        return deleted;
+    }
+
+    /** Size of the main database file in bytes, from page count and size. */
+    public long databaseBytes() throws SQLException {
+        try (DBUtil.Lease lease = db.lease();
+             Statement st = lease.connection().createStatement()) {
+            return pragma(st, "page_count") * pragma(st, "page_size");
+        }
+    }
+
+    public String metrics() {
+        return String.format("compactor runs=%d deleted=%d pagesFreed=%d last=%.1fms",
+                runs.get(), rowsDeleted.get(), pagesFreed.get(), lastRunNanos / 1e6);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (timer != null) timer.shutdownNow();
+        timer = null;
+    }
+
+    private static long pragma(Statement st, String name) throws SQLException {
+        try (ResultSet rs = st.executeQuery("PRAGMA " + name)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+}
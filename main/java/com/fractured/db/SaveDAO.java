@@ -1,56 +1,442 @@
 package com.fractured.db;
 
-import java.sql.Connection;
+import java.io.IOException;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Arrays;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import com.fractured.core.GameState;
+import com.fractured.core.Pacing;
+import com.fractured.core.Snapshot;
+import com.fractured.model.Inventory;
 import com.fractured.model.Player;
 
+/**
+ * Saves live in slots: {@link #AUTOSAVE}, {@link #QUICKSAVE} or any name
+ * the player picks. Each (player, slot) keeps its last {@code historyDepth}
+ * saves in a ring of rows that new saves overwrite, so the table stays the
+ * same size however long someone plays; {@link SaveCompactor} tidies up
+ * what the ring can't (old unslotted rows, a depth that was lowered).
+ *
+ * This is the SQLite {@link SaveStore}; its own methods throw
+ * {@link SQLException}, the store methods wrap it in an {@link IOException}.
+ */
 @SuppressWarnings("unused")
-public class SaveDAO {
+public class SaveDAO implements SaveStore {
+    public static final String AUTOSAVE = "autosave";
+    public static final String QUICKSAVE = "quicksave";
+    public static final int DEFAULT_HISTORY_DEPTH = 3;
+    public static final int DEFAULT_MAX_BATCH = 256;
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
+    // next generation of the slot, written over the ring position it maps to
+    private static final String UPSERT = """
+        INSERT INTO saves(save_name, player_name, current_scene, inventory, sanity, pacing, state, journal_seq, created_at, gen, ring)
+        SELECT ?, ?, ?, NULL, ?, ?, ?, ?, strftime('%Y-%m-%d %H:%M:%f', 'now'), g, g % ?
+        FROM (SELECT COALESCE(MAX(gen), -1) + 1 AS g FROM saves WHERE player_name = ? AND save_name = ?)
+        WHERE true
+        ON CONFLICT(player_name, save_name, ring) DO UPDATE SET
+            current_scene = excluded.current_scene,
+            inventory = excluded.inventory,
+            sanity = excluded.sanity,
+            pacing = excluded.pacing,
+            state = excluded.state,
+            journal_seq = excluded.journal_seq,
+            created_at = excluded.created_at,
+            gen = excluded.gen
+        """;
+
+    private static final String LIST_COLUMNS =
+            "SELECT id, save_name, player_name, created_at, current_scene, sanity, pacing, state, inventory FROM saves ";
+    // save_name is NOT NULL, so binding null to "IS NOT ?" skips nothing
+    private static final String LIST_FIRST = LIST_COLUMNS
+            + "WHERE player_name = ? AND save_name IS NOT ? ORDER BY created_at DESC, id DESC LIMIT ?";
+    private static final String LIST_AFTER = LIST_COLUMNS
+            + "WHERE player_name = ? AND save_name IS NOT ? AND (created_at, id) < (?, ?) ORDER BY created_at DESC, id DESC LIMIT ?";
+
     private final DBUtil dbUtil;
+    private final NameDictionary names;
+    private final int historyDepth;
+    private volatile GroupCommitter batcher; // null unless batching is on
+    private volatile SaveCache cache; // null unless caching is on
+
+    public SaveDAO(DBUtil dbUtil) { this(dbUtil, DEFAULT_HISTORY_DEPTH); }
 
-    public SaveDAO(DBUtil dbUtil) {
+    public SaveDAO(DBUtil dbUtil, int historyDepth) {
+        if (historyDepth < 1) throw new IllegalArgumentException("history depth must be at least 1: " + historyDepth);
         this.dbUtil = dbUtil;
+        this.names = new NameDictionary(dbUtil);
+        this.historyDepth = historyDepth;
+    }
+
+    /** Saves kept per (player, slot), newest included. */
+    public int getHistoryDepth() { return historyDepth; }
+
+    /**
+     * Turns on group commit: {@link #saveAsync} requests from all sessions
+     * are collected for up to {@code windowMs} (or {@code maxBatch} of them)
+     * and written in one transaction. A window of 0 still batches whatever
+     * queued up while the previous batch was being written.
+     */
+    public synchronized void enableBatching(long windowMs, int maxBatch) {
+        GroupCommitter old = batcher;
+        batcher = new GroupCommitter(dbUtil, UPSERT, windowMs, maxBatch);
+        if (old != null) old.close();
     }
 
+    public boolean isBatching() { return batcher != null; }
+
+    /**
+     * Keeps the latest save of up to {@code maxPlayers} players in memory
+     * for {@link #loadLatestForPlayer}; 0 turns the cache off. Saves made
+     * through this DAO keep it current, so only use it when nothing else
+     * writes to the database.
+     */
+    public synchronized void enableCache(int maxPlayers) {
+        cache = maxPlayers > 0 ? new SaveCache(maxPlayers) : null;
+    }
+
+    public String cacheMetrics() {
+        SaveCache c = cache;
+        return c == null ? "save cache off" : c.metrics();
+    }
+
+    /** Saves {@code state} into slot {@code saveName}, pushing the slot's oldest save out of its history. */
     public void saveGame(String saveName, GameState state) throws SQLException {
-        String sql = "INSERT INTO saves(save_name, player_name, current_scene, inventory) VALUES (?,?,?,?)";
-        try (Connection conn = DBUtil.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        Row row = row(saveName, state, null); // before leasing: encoding may need a connection for a new name
+        try (DBUtil.Lease db = dbUtil.lease()) {
+            write(db, row);
+        }
+        committed(row);
+    }
 
-            Player p = state.getPlayer();
-            String invCsv = String.join(",", p.getInventory().list());
-            ps.setString(1, saveName);
-            ps.setString(2, p.getName());
-            ps.setString(3, state.getCurrentScene());
-            ps.setString(4, invCsv);
-            ps.executeUpdate();
+    /**
+     * Saves {@code state} as it is now. With batching on, the future
+     * completes once the batch holding this save has committed; otherwise
+     * the save happens on the calling thread and the future is already done.
+     */
+    @Override
+    public CompletableFuture<Void> saveAsync(String saveName, GameState state) {
+        GroupCommitter b = batcher;
+        if (b != null) {
+            try {
+                Row row = row(saveName, state, null);
+                return b.submit(row).thenRun(() -> committed(row));
+            } catch (SQLException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        try {
+            saveGame(saveName, state);
+            return CompletableFuture.completedFuture(null);
+        } catch (SQLException e) {
+            return CompletableFuture.failedFuture(e);
         }
     }
 
     public GameState loadLatestForPlayer(String playerName) throws SQLException {
-        String sql = "SELECT * FROM saves WHERE player_name = ? ORDER BY created_at DESC LIMIT 1";
-        try (Connection conn = DBUtil.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        SaveCache c = cache;
+        return c != null ? c.load(playerName, this::queryLatest) : queryLatest(playerName);
+    }
+
+    private GameState queryLatest(String playerName) throws SQLException {
+        String sql = "SELECT * FROM saves WHERE player_name = ? ORDER BY created_at DESC, gen DESC LIMIT 1";
+        try (DBUtil.Lease db = dbUtil.lease()) {
+            PreparedStatement ps = db.prepare(sql);
+            ps.setString(1, playerName);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? read(rs) : null;
+            }
+        }
+    }
+
+    /**
+     * A save from one slot: {@code back} = 0 is the newest, 1 the one before
+     * it, up to the history depth. Null if there is no such save.
+     */
+    public GameState loadSlot(String playerName, String slot, int back) throws SQLException {
+        String sql = "SELECT * FROM saves WHERE player_name = ? AND save_name = ? ORDER BY gen DESC LIMIT 1 OFFSET ?";
+        try (DBUtil.Lease db = dbUtil.lease()) {
+            PreparedStatement ps = db.prepare(sql);
             ps.setString(1, playerName);
+            ps.setString(2, slot);
+            ps.setInt(3, back);
             try (ResultSet rs = ps.executeQuery()) {
-                if (!rs.next()) return null;
-                Player p = new Player(rs.getString("player_name"));
-                String inv = rs.getString("inventory");
-                if (inv != null && !inv.isEmpty()) {
-                    Arrays.stream(inv.split(",")).forEach(s -> {
-                        if (!s.isBlank()) p.getInventory().add(s.trim());
-                    });
+                return rs.next() ? read(rs) : null;
+            }
+        }
+    }
+
+    /**
+     * One page of the player's saves, newest first. Pass the last entry of
+     * the previous page as {@code after} (null for the first page). Pages
+     * continue from that entry's (created_at, id) through the
+     * (player_name, created_at) index instead of skipping rows with OFFSET,
+     * so page 1,000 costs what page 1 does.
+     */
+    public Page listSaves(String playerName, SaveEntry after, int limit) throws SQLException {
+        return listSaves(playerName, after, limit, null);
+    }
+
+    /** Like {@link #listSaves(String, SaveEntry, int)}, leaving out every save in {@code skipSlot} (null for none). */
+    public Page listSaves(String playerName, SaveEntry after, int limit, String skipSlot) throws SQLException {
+        if (limit < 1) throw new IllegalArgumentException("page size must be positive: " + limit);
+        String sql = after == null ? LIST_FIRST : LIST_AFTER;
+        List<SaveEntry> entries = new ArrayList<>(limit);
+        boolean more = false;
+        try (DBUtil.Lease db = dbUtil.lease()) {
+            PreparedStatement ps = db.prepare(sql);
+            int i = 1;
+            ps.setString(i++, playerName);
+            ps.setString(i++, skipSlot);
+            if (after != null) {
+                ps.setString(i++, after.getCreatedAt());
+                ps.setLong(i++, after.getId());
+            }
+            ps.setInt(i, limit + 1); // one extra row says whether there is another page
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (entries.size() == limit) {
+                        more = true;
+                        break;
+                    }
+                    entries.add(new SaveEntry(this, rs));
                 }
-                
-                GameState gs = new GameState(p);
-                gs.setCurrentScene(rs.getString("current_scene"));
+            }
+        }
+        return new Page(entries, more);
+    }
+
+    /** Slots holding at least one save for the player, by name. */
+    public List<String> slotsOf(String playerName) throws SQLException {
+        String sql = "SELECT DISTINCT save_name FROM saves WHERE player_name = ? AND save_name IS NOT NULL ORDER BY save_name";
+        List<String> slots = new ArrayList<>();
+        try (DBUtil.Lease db = dbUtil.lease()) {
+            PreparedStatement ps = db.prepare(sql);
+            ps.setString(1, playerName);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) slots.add(rs.getString(1));
+            }
+        }
+        return slots;
+    }
+
+    /** Deletes the slot with its whole history; returns how many rows went. */
+    public int deleteSlot(String playerName, String slot) throws SQLException {
+        try (DBUtil.Lease db = dbUtil.lease()) {
+            PreparedStatement ps = db.prepare("DELETE FROM saves WHERE player_name = ? AND save_name = ?");
+            ps.setString(1, playerName);
+            ps.setString(2, slot);
+            int deleted = ps.executeUpdate();
+            SaveCache c = cache;
+            if (c != null) c.invalidate(playerName);
+            return deleted;
+        }
+    }
+
+    @Override
+    public void save(String slot, GameState state) throws IOException {
+        try {
+            saveGame(slot, state);
+        } catch (SQLException e) {
+            throw wrap(e);
+        }
+    }
+
+    @Override
+    public GameState loadLatest(String playerName) throws IOException {
+        try {
+            return loadLatestForPlayer(playerName);
+        } catch (SQLException e) {
+            throw wrap(e);
+        }
+    }
+
+    @Override
+    public GameState load(String playerName, String slot) throws IOException {
+        try {
+            return loadSlot(playerName, slot, 0);
+        } catch (SQLException e) {
+            throw wrap(e);
+        }
+    }
+
+    @Override
+    public List<String> listSlots(String playerName) throws IOException {
+        try {
+            return slotsOf(playerName);
+        } catch (SQLException e) {
+            throw wrap(e);
+        }
+    }
+
+    @Override
+    public boolean delete(String playerName, String slot) throws IOException {
+        try {
+            return deleteSlot(playerName, slot) > 0;
+        } catch (SQLException e) {
+            throw wrap(e);
+        }
+    }
+
+    private static IOException wrap(SQLException e) {
+        return new IOException("save database: " + e.getMessage(), e);
+    }
+
+    /** Encodes a row for {@code state}; {@code journalSeq} marks it as a journal snapshot. */
+    Row row(String saveName, GameState state, Long journalSeq) throws SQLException {
+        try {
+            SaveCache c = cache;
+            return new Row(saveName, state, SaveCodec.encode(state, names, true), journalSeq, historyDepth,
+                    c == null ? null : state.snapshot(), c == null ? 0 : c.stamp());
+        } catch (IllegalStateException e) {
+            throw new SQLException(e.getMessage(), e);
+        }
+    }
+
+    void write(DBUtil.Lease db, Row row) throws SQLException {
+        PreparedStatement ps = db.prepare(UPSERT);
+        row.bind(ps);
+        ps.executeUpdate();
+    }
+
+    // the row is in the database: it is now the player's latest save
+    void committed(Row row) {
+        SaveCache c = cache;
+        if (c == null) return;
+        if (row.snapshot != null) c.saved(row.playerName, row.snapshot, row.stamp);
+        else c.invalidate(row.playerName); // encoded before the cache was on
+    }
+
+    NameDictionary names() { return names; }
+
+    /** The name table this database's binary saves are encoded against. */
+    public SaveCodec.Names nameTable() { return names; }
+
+    // one saves row back into a state
+    GameState read(ResultSet rs) throws SQLException {
+        return decode(rs.getLong("id"), rs.getString("player_name"), rs.getBytes("state"), rs.getString("inventory"),
+                rs.getInt("sanity"), rs.getString("current_scene"), rs.getString("pacing"));
+    }
+
+    GameState decode(long id, String playerName, byte[] blob, String inv, int sanity, String scene, String pacing)
+            throws SQLException {
+        if (blob != null) {
+            try {
+                GameState gs = SaveCodec.decode(blob, names);
+                gs.getPlayer().setName(playerName);
                 return gs;
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                throw new SQLException("unreadable save " + id + ": " + e.getMessage(), e);
             }
         }
+
+        // rows from before the binary format
+        Player p = new Player(playerName);
+        addItems(p.getInventory(), inv);
+        p.setSanity(sanity);
+
+        GameState gs = new GameState(p);
+        gs.setCurrentScene(scene);
+        if (pacing != null) gs.setPacing(Pacing.fromName(pacing));
+        return gs;
+    }
+
+    // the inventory alone, as decode would restore it
+    Inventory inventory(long id, byte[] blob, String inv) throws SQLException {
+        if (blob != null) {
+            try {
+                return SaveCodec.inventory(blob, names);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                throw new SQLException("unreadable save " + id + ": " + e.getMessage(), e);
+            }
+        }
+        Inventory items = new Inventory();
+        addItems(items, inv);
+        return items;
+    }
+
+    // the comma-joined inventory column
+    private static void addItems(Inventory items, String inv) {
+        if (inv == null) return;
+        for (int from = 0; from < inv.length(); ) {
+            int comma = inv.indexOf(',', from);
+            if (comma < 0) comma = inv.length();
+            String item = inv.substring(from, comma).trim();
+            if (!item.isEmpty()) items.add(item);
+            from = comma + 1;
+        }
+    }
+
+    /** Stops group commit after writing what is already queued. */
+    @Override
+    public synchronized void close() {
+        if (batcher != null) batcher.close();
+        batcher = null;
+    }
+
+    /** A page of {@link #listSaves}; {@link #hasMore()} says whether asking for the next one is worth it. */
+    public static final class Page {
+        private final List<SaveEntry> entries;
+        private final boolean more;
+
+        Page(List<SaveEntry> entries, boolean more) {
+            this.entries = entries;
+            this.more = more;
+        }
+
+        public List<SaveEntry> getEntries() { return entries; }
+        public boolean hasMore() { return more; }
+        public boolean isEmpty() { return entries.isEmpty(); }
+
+        /** The entry to pass as {@code after} for the next page; null if this one is empty. */
+        public SaveEntry last() { return entries.isEmpty() ? null : entries.get(entries.size() - 1); }
+    }
+
+    // one saves row, captured when the save is asked for so a queued save can't see later changes
+    static final class Row {
+        final String saveName;
+        final String playerName;
+        final String scene;
+        final int sanity;
+        final String pacing;
+        final byte[] state;
+        final Long journalSeq;
+        final int historyDepth;
+        final Snapshot snapshot; // for the cache, null without one
+        final long stamp;
+
+        Row(String saveName, GameState state, byte[] blob, Long journalSeq, int historyDepth, Snapshot snapshot, long stamp) {
+            Player p = state.getPlayer();
+            this.saveName = saveName;
+            this.playerName = p.getName();
+            this.scene = state.getCurrentScene();
+            this.sanity = p.getSanity();
+            this.pacing = state.getPacing().name().toLowerCase();
+            this.state = blob;
+            this.journalSeq = journalSeq;
+            this.historyDepth = historyDepth;
+            this.snapshot = snapshot;
+            this.stamp = stamp;
+        }
+
+        // parameters of UPSERT
+        void bind(PreparedStatement ps) throws SQLException {
+            ps.setString(1, saveName);
+            ps.setString(2, playerName);
+            ps.setString(3, scene);
+            ps.setInt(4, sanity);
+            ps.setString(5, pacing);
+            ps.setBytes(6, state);
+            if (journalSeq != null) ps.setLong(7, journalSeq);
+            else ps.setNull(7, Types.INTEGER);
+            ps.setInt(8, historyDepth);
+            ps.setString(9, playerName);
+            ps.setString(10, saveName);
+        }
     }
 }
@@ -0,0 +1,62 @@
+package com.fractured.db;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import com.fractured.core.GameState;
+import com.fractured.model.Inventory;
+
+/**
+ * One save as listed by {@link SaveDAO#listSaves}: the columns a menu
+ * needs straight away, and the state itself only once {@link #getState()}
+ * is called, so a page of saves nobody opens is never decoded.
+ * {@link #getInventory()} reads just the items for a summary line.
+ */
+public final class SaveEntry {
+    private final SaveDAO dao;
+    private final long id;
+    private final String slot;
+    private final String playerName;
+    private final String createdAt;
+    private final String scene;
+    private final int sanity;
+    private final String pacing;
+    private final byte[] blob;       // null for rows from before the binary format
+    private final String inventory;  // comma-joined, only on those rows
+    private GameState state;
+
+    SaveEntry(SaveDAO dao, ResultSet rs) throws SQLException {
+        this.dao = dao;
+        this.id = rs.getLong("id");
+        this.slot = rs.getString("save_name");
+        this.playerName = rs.getString("player_name");
+        this.createdAt = rs.getString("created_at");
+        this.scene = rs.getString("current_scene");
+        this.sanity = rs.getInt("sanity");
+        this.pacing = rs.getString("pacing");
+        this.blob = rs.getBytes("state");
+        this.inventory = rs.getString("inventory");
+    }
+
+    public long getId() { return id; }
+    public String getSlot() { return slot; }
+    public String getPlayerName() { return playerName; }
+    public String getCreatedAt() { return createdAt; }
+    public String getScene() { return scene; }
+    public int getSanity() { return sanity; }
+
+    /**
+     * What the player was carrying. Only the inventory is decoded, unless
+     * the whole state already has been.
+     */
+    public synchronized Inventory getInventory() throws SQLException {
+        if (state != null) return state.getPlayer().getInventory();
+        return dao.inventory(id, blob, inventory);
+    }
+
+    /** The saved state, decoded on first use; every call returns that same state. */
+    public synchronized GameState getState() throws SQLException {
+        if (state == null) state = dao.decode(id, playerName, blob, inventory, sanity, scene, pacing);
+        return state;
+    }
+}
@@ -0,0 +1,432 @@
+package com.fractured.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import com.fractured.core.GameState;
+import com.fractured.model.Inventory;
+import com.fractured.model.ItemCatalog;
+import com.fractured.model.Player;
+
+/**
+ * Event-sourced saves. Instead of a full row per scene, each session
+ * appends small events to {@code save_events}: the choice a player typed,
+ * and then what it did (sanity delta, items gained or lost, the scene moved
+ * to). Every {@code snapshotEvery} events a full snapshot goes into the
+ * saves table under slot {@link #SLOT}, tagged with the last event it
+ * includes, so {@link #restore} loads the newest snapshot and replays only
+ * the events after it.
+ *
+ * Replay applies the recorded effects rather than re-running the scenes:
+ * whisper damage is random and the story may have changed since, and the
+ * effects are what the player actually ended up with. Events are never
+ * pruned, so {@link #history} is an exact account of how a player got
+ * where they are.
+ *
+ * Like {@link AutosaveWriter}, events are written behind the game by a
+ * daemon thread, one transaction per flush.
+ */
+public class SaveJournal implements AutoCloseable {
+    public static final String SLOT = "journal";
+    public static final int DEFAULT_SNAPSHOT_EVERY = 64;
+    public static final long DEFAULT_INTERVAL_MS = 1000;
+
+    // event kinds, as stored; never renumber
+    static final int CHOICE = 1;       // name: scene asked, input: what was typed
+    static final int SCENE = 2;        // name: scene moved to, null at the end
+    static final int SANITY = 3;       // arg: delta
+    static final int ITEM_ADD = 4;     // name: item, arg: count
+    static final int ITEM_REMOVE = 5;  // name: item, arg: count
+
+    private static final String INSERT =
+            "INSERT INTO save_events(player_name, seq, kind, name_id, arg, input) VALUES (?,?,?,?,?,?)";
+
+    private final SaveDAO dao;
+    private final DBUtil db;
+    private final int snapshotEvery;
+    private final long intervalNanos;
+    // per session, keyed by its state; weak so finished sessions don't pile up
+    private final Map<GameState, Stream> streams = Collections.synchronizedMap(new WeakHashMap<>());
+    // next seq per player, shared by all their sessions: (player_name, seq) is the key
+    private final Map<String, AtomicLong> seqs = new ConcurrentHashMap<>();
+    // events and snapshot rows in the order they happened
+    private final ConcurrentLinkedQueue<Object> pending = new ConcurrentLinkedQueue<>();
+    private final Object flushLock = new Object();
+    private final LongAdder eventsWritten = new LongAdder();
+    private final LongAdder snapshotsWritten = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile Thread worker;
+    private volatile boolean closed;
+
+    public SaveJournal(SaveDAO dao, DBUtil db) { this(dao, db, DEFAULT_SNAPSHOT_EVERY, DEFAULT_INTERVAL_MS); }
+
+    public SaveJournal(SaveDAO dao, DBUtil db, int snapshotEvery, long intervalMs) {
+        if (snapshotEvery < 1 || intervalMs <= 0) {
+            throw new IllegalArgumentException("bad journal settings: snapshot every " + snapshotEvery + ", interval " + intervalMs);
+        }
+        this.dao = dao;
+        this.db = db;
+        this.snapshotEvery = snapshotEvery;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+    }
+
+    /** Records that the player answered {@code sceneId} with {@code input}. */
+    public void choice(GameState state, String sceneId, String input) {
+        Stream s = stream(state);
+        synchronized (s) {
+            if (s.last == null) return; // nothing recorded yet; the first snapshot will cover it
+            append(s, CHOICE, sceneId, null, input);
+        }
+    }
+
+    /**
+     * Records how {@code state} changed since the last call for it. The
+     * first call for a session writes a snapshot instead.
+     */
+    public void record(GameState state) {
+        Stream s = stream(state);
+        synchronized (s) {
+            Player now = state.getPlayer();
+            String scene = state.getCurrentScene();
+            if (s.last == null) {
+                snapshot(s, state);
+            } else {
+                int delta = now.getSanity() - s.last.getSanity();
+                if (delta != 0) append(s, SANITY, null, delta, null);
+                diffItems(s, s.last.getInventory(), now.getInventory());
+                if (!Objects.equals(scene, s.lastScene)) append(s, SCENE, scene, null, null);
+                if (s.sinceSnapshot >= snapshotEvery) snapshot(s, state);
+            }
+            s.last = now.copy();
+            s.lastScene = scene;
+        }
+        if (worker == null) startWorker();
+    }
+
+    /** Writes every pending event and snapshot in one transaction; returns how many. */
+    public int flush() {
+        synchronized (flushLock) {
+            List<Object> batch = new ArrayList<>();
+            Object o;
+            while ((o = pending.poll()) != null) batch.add(o);
+            if (batch.isEmpty()) return 0;
+            int events = 0, snapshots = 0;
+            try (DBUtil.Lease lease = db.lease()) {
+                Connection conn = lease.connection();
+                conn.setAutoCommit(false);
+                try {
+                    PreparedStatement ps = lease.prepare(INSERT);
+                    for (Object item : batch) {
+                        if (item instanceof Event) {
+                            ((Event) item).bind(ps);
+                            ps.addBatch();
+                            events++;
+                        } else {
+                            dao.write(lease, (SaveDAO.Row) item);
+                            snapshots++;
+                        }
+                    }
+                    ps.executeBatch();
+                    conn.commit();
+                    for (Object item : batch) {
+                        if (item instanceof SaveDAO.Row) dao.committed((SaveDAO.Row) item);
+                    }
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                failed.add(batch.size());
+                // log but do not stop the game
+                System.err.println("Warning: failed to write save journal: " + e.getMessage());
+                resync(batch);
+                return 0;
+            }
+            eventsWritten.add(events);
+            snapshotsWritten.add(snapshots);
+            return batch.size();
+        }
+    }
+
+    /**
+     * The player's state as of their last journalled event: newest
+     * snapshot plus the events after it. Null if they have no journal.
+     */
+    public GameState restore(String playerName) throws SQLException {
+        flush();
+        try (DBUtil.Lease lease = db.lease()) {
+            PreparedStatement snap = lease.prepare(
+                    "SELECT * FROM saves WHERE player_name = ? AND save_name = ? ORDER BY journal_seq DESC LIMIT 1");
+            snap.setString(1, playerName);
+            snap.setString(2, SLOT);
+            GameState state;
+            long from;
+            try (ResultSet rs = snap.executeQuery()) {
+                if (!rs.next()) return null;
+                state = dao.read(rs);
+                from = rs.getLong("journal_seq");
+            }
+            replay(lease, dao.names(), playerName, from, state);
+            return state;
+        }
+    }
+
+    /** Applies the player's events after {@code afterSeq} to {@code state}, which is the snapshot taken at it. */
+    static void replay(DBUtil.Lease lease, NameDictionary names, String playerName, long afterSeq,
+                       GameState state) throws SQLException {
+        PreparedStatement tail = lease.prepare(
+                "SELECT kind, name_id, arg FROM save_events WHERE player_name = ? AND seq > ? ORDER BY seq");
+        tail.setString(1, playerName);
+        tail.setLong(2, afterSeq);
+        try (ResultSet rs = tail.executeQuery()) {
+            while (rs.next()) {
+                int id = rs.getInt(2);
+                String name = rs.wasNull() ? null : names.name(id); // before the next getter resets wasNull
+                apply(state, rs.getInt(1), name, rs.getInt(3));
+            }
+        }
+    }
+
+    /** Every event journalled for the player, oldest first, one line each. */
+    public List<String> history(String playerName) throws SQLException {
+        flush();
+        List<String> lines = new ArrayList<>();
+        try (DBUtil.Lease lease = db.lease()) {
+            PreparedStatement ps = lease.prepare(
+                    "SELECT seq, kind, name_id, arg, input FROM save_events WHERE player_name = ? ORDER BY seq");
+            ps.setString(1, playerName);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    long seq = rs.getLong(1);
+                    String name = nameOf(rs, 3);
+                    int arg = rs.getInt(4);
+                    switch (rs.getInt(2)) {
+                        case CHOICE: lines.add(seq + " choice " + name + " <- \"" + rs.getString(5) + "\""); break;
+                        case SCENE: lines.add(seq + " scene " + (name == null ? "(end)" : name)); break;
+                        case SANITY: lines.add(seq + " sanity " + (arg > 0 ? "+" : "") + arg); break;
+                        case ITEM_ADD: lines.add(seq + " add " + name + (arg > 1 ? " x" + arg : "")); break;
+                        case ITEM_REMOVE: lines.add(seq + " remove " + name + (arg > 1 ? " x" + arg : "")); break;
+                        default: lines.add(seq + " unknown event " + rs.getInt(2));
+                    }
+                }
+            }
+        }
+        return lines;
+    }
+
+    /** Stops the writer thread and flushes what is still pending. */
+    @Override
+    public void close() {
+        closed = true;
+        Thread w = worker;
+        if (w != null) {
+            LockSupport.unpark(w);
+            try {
+                w.join(TimeUnit.NANOSECONDS.toMillis(intervalNanos) + 5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    public int queueDepth() { return pending.size(); }
+
+    public String metrics() {
+        return String.format("journal queued=%d events=%d snapshots=%d failed=%d",
+                queueDepth(), eventsWritten.sum(), snapshotsWritten.sum(), failed.sum());
+    }
+
+    private static void apply(GameState state, int kind, String name, int arg) {
+        Player p = state.getPlayer();
+        switch (kind) {
+            case SCENE:
+                state.setCurrentScene(name);
+                break;
+            case SANITY:
+                p.modifySanity(arg);
+                break;
+            case ITEM_ADD:
+                for (int i = 0; i < arg; i++) p.getInventory().add(name);
+                break;
+            case ITEM_REMOVE:
+                for (int i = 0; i < arg; i++) p.getInventory().remove(name);
+                break;
+            default:
+                // choices are the audit trail; their effects follow as their own events
+        }
+    }
+
+    private String nameOf(ResultSet rs, int column) throws SQLException {
+        int id = rs.getInt(column);
+        return rs.wasNull() ? null : dao.names().name(id);
+    }
+
+    private void diffItems(Stream s, Inventory before, Inventory after) {
+        for (int id = after.next(0); id >= 0; id = after.next(id + 1)) {
+            int gained = after.count(id) - before.count(id);
+            if (gained > 0) append(s, ITEM_ADD, ItemCatalog.name(id), gained, null);
+        }
+        for (int id = before.next(0); id >= 0; id = before.next(id + 1)) {
+            int lost = before.count(id) - after.count(id);
+            if (lost > 0) append(s, ITEM_REMOVE, ItemCatalog.name(id), lost, null);
+        }
+    }
+
+    private void append(Stream s, int kind, String name, Integer arg, String input) {
+        Integer nameId = name == null ? null : dao.names().id(name);
+        pending.add(new Event(s.player, s.seq.getAndIncrement(), kind, nameId, arg, input));
+        s.sinceSnapshot++;
+    }
+
+    /**
+     * After a batch is lost its sessions' {@code last} no longer matches what
+     * is stored, so later deltas would replay onto the wrong state. Forget it,
+     * and whatever they queued since, so their next record is a snapshot.
+     */
+    private void resync(List<Object> lost) {
+        Set<String> players = new HashSet<>();
+        for (Object o : lost) players.add(playerOf(o));
+        List<Stream> hit = new ArrayList<>();
+        synchronized (streams) {
+            for (Stream s : streams.values()) {
+                if (players.contains(s.player)) hit.add(s);
+            }
+        }
+        for (Stream s : hit) {
+            synchronized (s) {
+                s.last = null;
+                s.lastScene = null;
+                pending.removeIf(o -> playerOf(o).equals(s.player));
+            }
+        }
+        // another process journalling the same player may have taken our seqs; skip past them
+        for (String player : players) {
+            try {
+                long stored = storedSeq(player);
+                seqs.get(player).accumulateAndGet(stored + 1, Math::max);
+            } catch (SQLException e) {
+                // the database is still failing; the next failed flush tries again
+            }
+        }
+    }
+
+    private static String playerOf(Object pendingItem) {
+        return pendingItem instanceof Event ? ((Event) pendingItem).player : ((SaveDAO.Row) pendingItem).playerName;
+    }
+
+    private void snapshot(Stream s, GameState state) {
+        try {
+            pending.add(dao.row(SLOT, state, s.seq.get() - 1));
+            s.sinceSnapshot = 0;
+        } catch (SQLException e) {
+            // try again after the next event
+            System.err.println("Warning: failed to encode journal snapshot: " + e.getMessage());
+        }
+    }
+
+    private Stream stream(GameState state) {
+        synchronized (streams) {
+            Stream s = streams.get(state);
+            if (s == null) {
+                String player = state.getPlayer().getName();
+                s = new Stream(player, seqs.computeIfAbsent(player, p -> new AtomicLong(lastSeq(p) + 1)));
+                streams.put(state, s);
+            }
+            return s;
+        }
+    }
+
+    // continues the player's numbering across runs; only asked once per player
+    private long lastSeq(String player) {
+        try {
+            return storedSeq(player);
+        } catch (SQLException e) {
+            throw new IllegalStateException("cannot read save journal: " + e.getMessage(), e);
+        }
+    }
+
+    private long storedSeq(String player) throws SQLException {
+        try (DBUtil.Lease lease = db.lease()) {
+            PreparedStatement ps = lease.prepare("SELECT COALESCE(MAX(seq), 0) FROM save_events WHERE player_name = ?");
+            ps.setString(1, player);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private synchronized void startWorker() {
+        if (worker != null || closed) return;
+        Thread t = new Thread(() -> {
+            while (!closed) {
+                LockSupport.parkNanos(this, intervalNanos);
+                flush();
+            }
+        }, "save-journal");
+        t.setDaemon(true);
+        t.start();
+        worker = t;
+    }
+
+    private static final class Stream {
+        final String player;
+        final AtomicLong seq; // the player's, see seqs
+        Player last;        // state as of the last record, null before the first
+        String lastScene;
+        int sinceSnapshot;
+
+        Stream(String player, AtomicLong seq) {
+            this.player = player;
+            this.seq = seq;
+        }
+    }
+
+    private static final class Event {
+        final String player;
+        final long seq;
+        final int kind;
+        final Integer nameId;
+        final Integer arg;
+        final String input;
+
+        Event(String player, long seq, int kind, Integer nameId, Integer arg, String input) {
+            this.player = player;
+            this.seq = seq;
+            this.kind = kind;
+            this.nameId = nameId;
+            this.arg = arg;
+            this.input = input;
+        }
+
+        void bind(PreparedStatement ps) throws SQLException {
+            ps.setString(1, player);
+            ps.setLong(2, seq);
+            ps.setInt(3, kind);
+            if (nameId != null) ps.setInt(4, nameId);
+            else ps.setNull(4, Types.INTEGER);
+            if (arg != null) ps.setInt(5, arg);
+            else ps.setNull(5, Types.INTEGER);
+            ps.setString(6, input);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.fractured.db;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.fractured.core.GameState;
+
+/**
+ * Where saves live. The engine and the autosave writer only talk to this,
+ * so the backend is a matter of configuration (see {@link #open}):
+ * {@link SaveDAO} keeps them in SQLite with a short history per slot,
+ * {@link MemorySaveStore} in the heap for simulations and bots, and
+ * {@link FileSaveStore} in append-only segment files.
+ *
+ * A player has any number of named slots ({@link SaveDAO#AUTOSAVE},
+ * {@link SaveDAO#QUICKSAVE}, ...); saving to a slot replaces what it held.
+ * Saves are taken when asked for: later changes to the state never leak
+ * into one already made.
+ */
+public interface SaveStore extends AutoCloseable {
+
+    void save(String slot, GameState state) throws IOException;
+
+    /**
+     * Saves without waiting where the backend can. The default saves on the
+     * calling thread and returns a completed future.
+     */
+    default CompletableFuture<Void> saveAsync(String slot, GameState state) {
+        try {
+            save(slot, state);
+            return CompletableFuture.completedFuture(null);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /** The player's most recent save in any slot, or null if they have none. */
+    GameState loadLatest(String playerName) throws IOException;
+
+    /** What the slot holds, or null if it is empty. */
+    GameState load(String playerName, String slot) throws IOException;
+
+    /** The player's slots that hold a save, by name. */
+    List<String> listSlots(String playerName) throws IOException;
+
+    /** Empties the slot; false if it held nothing. */
+    boolean delete(String playerName, String slot) throws IOException;
+
+    /** Writes anything still queued and releases the backend. */
+    @Override
+    void close();
+
+    /**
+     * The backend named by {@code kind}: "sqlite" (the default, on
+     * {@code db}), "memory", or "file" (segments under {@code dir}).
+     *
+     * @throws IllegalArgumentException for any other name
+     */
+    static SaveStore open(String kind, DBUtil db, Path dir) throws IOException {
+        String k = kind == null ? "sqlite" : kind.trim().toLowerCase();
+        switch (k) {
+            case "sqlite":
+                return new SaveDAO(db);
+            case "memory":
+                return new MemorySaveStore();
+            case "file":
+                return new FileSaveStore(dir != null ? dir : Paths.get("saves"));
+            default:
+                throw new IllegalArgumentException("unknown save store: " + kind);
+        }
+    }
+}
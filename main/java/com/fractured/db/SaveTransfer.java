@@ -0,0 +1,480 @@
+package com.fractured.db;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fractured.core.GameState;
+import com.fractured.core.Pacing;
+import com.fractured.model.Player;
+
+/**
+ * Moves the saves table in and out of a database as NDJSON, one save per
+ * line, without ever holding more than a chunk of it:
+ * <pre>
+ * {"player":"Elias","slot":"autosave","scene":"act1_intro","sanity":88,"pacing":"normal",
+ *  "inventory":["torch","note"],"created_at":"2026-01-02 10:11:12.345","gen":7,"ring":1}
+ * </pre>
+ * Saves are written out decoded, item and scene names included, since the
+ * binary state refers to the name table of the database it came from.
+ *
+ * The {@link SaveJournal#SLOT journal} slot is exported as one line per
+ * player holding what {@link SaveJournal#restore} would return: the newest
+ * snapshot with the events after it replayed. The events themselves (the
+ * --journal audit trail) stay behind. On import that line is marked as
+ * covering every event the target already has for the player, so restoring
+ * there does not replay a different history on top of it.
+ *
+ * Export walks a forward-only cursor and writes through a fixed buffer to a
+ * file channel. Import reads {@link #CHUNK} lines, encodes them against the
+ * target's name table, then inserts them as one batch in one transaction.
+ * A save already in the target's slot ring is only replaced by a newer
+ * generation. Rows outside any ring (from before slots had rings) carry a
+ * NULL ring, which the unique index never matches, so those are skipped when
+ * the target already has the same player, slot and generation. Either way,
+ * importing the same file twice changes nothing.
+ */
+public final class SaveTransfer {
+    public static final int CHUNK = 5_000;
+    public static final int PROGRESS_EVERY = 250_000;
+
+    // journal_seq: for a journal line, the last event the target holds for the player
+    private static final String INSERT = """
+        INSERT INTO saves(save_name, player_name, current_scene, inventory, sanity, pacing, state, journal_seq, created_at, gen, ring)
+        VALUES (?, ?, ?, NULL, ?, ?, ?,
+                CASE WHEN ? THEN (SELECT COALESCE(MAX(seq), 0) FROM save_events WHERE player_name = ?) END,
+                COALESCE(?, strftime('%Y-%m-%d %H:%M:%f', 'now')), ?, ?)
+        ON CONFLICT(player_name, save_name, ring) DO UPDATE SET
+            current_scene = excluded.current_scene,
+            inventory = NULL,
+            sanity = excluded.sanity,
+            pacing = excluded.pacing,
+            state = excluded.state,
+            journal_seq = excluded.journal_seq,
+            created_at = excluded.created_at,
+            gen = excluded.gen
+        WHERE excluded.gen > saves.gen
+        """;
+    // NULLs never conflict, so ringless rows are matched by generation instead
+    private static final String INSERT_RINGLESS = """
+        INSERT INTO saves(save_name, player_name, current_scene, inventory, sanity, pacing, state, journal_seq, created_at, gen, ring)
+        SELECT ?, ?, ?, NULL, ?, ?, ?,
+               CASE WHEN ? THEN (SELECT COALESCE(MAX(seq), 0) FROM save_events WHERE player_name = ?) END,
+               COALESCE(?, strftime('%Y-%m-%d %H:%M:%f', 'now')), ?, NULL
+        WHERE NOT EXISTS (SELECT 1 FROM saves WHERE player_name = ? AND save_name = ? AND gen = ? AND ring IS NULL)
+        """;
+    // the snapshot SaveJournal.restore starts from, one per player
+    private static final String JOURNAL_HEADS = """
+        SELECT * FROM saves s WHERE save_name = ?
+        AND journal_seq = (SELECT MAX(journal_seq) FROM saves WHERE player_name = s.player_name AND save_name = s.save_name)
+        ORDER BY id
+        """;
+
+    private final DBUtil db;
+    private final SaveDAO dao;
+    private final PrintStream progress; // null for none
+
+    public SaveTransfer(DBUtil db, PrintStream progress) {
+        this.db = db;
+        this.dao = new SaveDAO(db);
+        this.progress = progress;
+    }
+
+    /** Writes every save to {@code file}, replacing it; returns the number of lines written. */
+    public long exportTo(Path file) throws IOException, SQLException {
+        long rows = 0;
+        long t0 = System.nanoTime();
+        ByteBuffer buf = ByteBuffer.allocate(1 << 16);
+        StringBuilder line = new StringBuilder(256);
+        dao.names().reload(); // up front: decoding must not need a second connection mid-cursor
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             DBUtil.Lease lease = db.lease()) {
+            PreparedStatement ps = lease.prepare("SELECT * FROM saves WHERE save_name <> ? ORDER BY id");
+            ps.setString(1, SaveJournal.SLOT);
+            ps.setFetchSize(1_000);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    line.setLength(0);
+                    toJson(rs, dao.read(rs), line);
+                    put(out, buf, line);
+                    if (++rows % PROGRESS_EVERY == 0) report("exported", rows, t0);
+                }
+            }
+            PreparedStatement heads = lease.prepare(JOURNAL_HEADS);
+            heads.setString(1, SaveJournal.SLOT);
+            try (ResultSet rs = heads.executeQuery()) {
+                while (rs.next()) {
+                    GameState gs = dao.read(rs);
+                    SaveJournal.replay(lease, dao.names(), rs.getString("player_name"), rs.getLong("journal_seq"), gs);
+                    line.setLength(0);
+                    toJson(rs, gs, line);
+                    put(out, buf, line);
+                    if (++rows % PROGRESS_EVERY == 0) report("exported", rows, t0);
+                }
+            }
+            drain(out, buf);
+        }
+        if (rows % PROGRESS_EVERY != 0) report("exported", rows, t0);
+        return rows;
+    }
+
+    /** Adds the saves in {@code file}; returns the number of lines read. */
+    public long importFrom(Path file) throws IOException, SQLException {
+        long rows = 0;
+        long t0 = System.nanoTime();
+        List<Item> chunk = new ArrayList<>(CHUNK);
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) continue;
+                try {
+                    chunk.add(item(Json.parse(line)));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(file + " line " + (rows + 1) + ": " + e.getMessage(), e);
+                }
+                rows++;
+                if (chunk.size() == CHUNK) write(chunk);
+                if (rows % PROGRESS_EVERY == 0) report("imported", rows, t0);
+            }
+        }
+        write(chunk);
+        if (rows % PROGRESS_EVERY != 0) report("imported", rows, t0);
+        return rows;
+    }
+
+    // encoding happens here, before the transaction: a new name takes its own connection
+    private Item item(Map<String, Object> o) {
+        String player = str(o, "player", true);
+        Player p = new Player(player);
+        Object inv = o.get("inventory");
+        if (inv instanceof List) {
+            for (Object item : (List<?>) inv) p.getInventory().add(String.valueOf(item));
+        }
+        if (o.get("sanity") != null) p.setSanity((int) num(o, "sanity"));
+        GameState gs = new GameState(p);
+        gs.setCurrentScene(str(o, "scene", false));
+        String pacing = str(o, "pacing", false);
+        if (pacing != null) gs.setPacing(Pacing.fromName(pacing));
+        byte[] blob = SaveCodec.encode(gs, dao.names(), true);
+        return new Item(str(o, "slot", true), player, gs, blob, str(o, "created_at", false),
+                num(o, "gen"), o.get("ring") == null ? null : num(o, "ring"));
+    }
+
+    private void write(List<Item> chunk) throws SQLException {
+        if (chunk.isEmpty()) return;
+        try (DBUtil.Lease lease = db.lease()) {
+            Connection conn = lease.connection();
+            conn.setAutoCommit(false);
+            try {
+                PreparedStatement ringed = lease.prepare(INSERT);
+                PreparedStatement ringless = lease.prepare(INSERT_RINGLESS);
+                for (Item it : chunk) {
+                    PreparedStatement ps = it.ring != null ? ringed : ringless;
+                    it.bind(ps);
+                    ps.addBatch();
+                }
+                ringed.executeBatch();
+                ringless.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        chunk.clear();
+    }
+
+    // gs is the row's state, or for a journal head the state it restores to
+    private static void toJson(ResultSet rs, GameState gs, StringBuilder sb) throws SQLException {
+        Player p = gs.getPlayer();
+        sb.append('{');
+        Json.field(sb, "player", p.getName()).append(',');
+        Json.field(sb, "slot", rs.getString("save_name")).append(',');
+        Json.field(sb, "scene", gs.getCurrentScene()).append(',');
+        sb.append("\"sanity\":").append(p.getSanity()).append(',');
+        Json.field(sb, "pacing", gs.getPacing().name().toLowerCase()).append(',');
+        sb.append("\"inventory\":[");
+        boolean first = true;
+        for (String item : p.getInventory().list()) {
+            if (!first) sb.append(',');
+            Json.string(sb, item);
+            first = false;
+        }
+        sb.append("],");
+        Json.field(sb, "created_at", rs.getString("created_at")).append(',');
+        sb.append("\"gen\":").append(rs.getLong("gen")).append(',');
+        long ring = rs.getLong("ring");
+        sb.append("\"ring\":").append(rs.wasNull() ? "null" : String.valueOf(ring));
+        sb.append('}');
+    }
+
+    private static void put(FileChannel out, ByteBuffer buf, StringBuilder line) throws IOException {
+        line.append('\n');
+        byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > buf.remaining()) drain(out, buf);
+        if (bytes.length <= buf.capacity()) {
+            buf.put(bytes);
+        } else {
+            ByteBuffer big = ByteBuffer.wrap(bytes);
+            while (big.hasRemaining()) out.write(big);
+        }
+    }
+
+    private static void drain(FileChannel out, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) out.write(buf);
+        buf.clear();
+    }
+
+    private void report(String what, long rows, long t0) {
+        if (progress == null) return;
+        double secs = (System.nanoTime() - t0) / 1e9;
+        Runtime rt = Runtime.getRuntime();
+        progress.printf("  %s %,d saves, %,.0f/s, heap %d MB%n", what, rows, rows / Math.max(secs, 1e-9),
+                (rt.totalMemory() - rt.freeMemory()) >> 20);
+    }
+
+    private static String str(Map<String, Object> o, String key, boolean required) {
+        Object v = o.get(key);
+        if (v == null && required) throw new IllegalArgumentException("missing \"" + key + "\"");
+        if (v != null && !(v instanceof String)) throw new IllegalArgumentException("\"" + key + "\" is not a string");
+        return (String) v;
+    }
+
+    private static long num(Map<String, Object> o, String key) {
+        Object v = o.get(key);
+        if (v == null) return 0;
+        if (!(v instanceof Number)) throw new IllegalArgumentException("\"" + key + "\" is not a number");
+        return ((Number) v).longValue();
+    }
+
+    // one parsed line, encoded and ready to bind
+    private static final class Item {
+        final String slot;
+        final String player;
+        final String scene;
+        final int sanity;
+        final String pacing;
+        final byte[] state;
+        final String createdAt;
+        final long gen;
+        final Long ring;
+
+        Item(String slot, String player, GameState gs, byte[] state, String createdAt, long gen, Long ring) {
+            this.slot = slot;
+            this.player = player;
+            this.scene = gs.getCurrentScene();
+            this.sanity = gs.getPlayer().getSanity();
+            this.pacing = gs.getPacing().name().toLowerCase();
+            this.state = state;
+            this.createdAt = createdAt;
+            this.gen = gen;
+            this.ring = ring;
+        }
+
+        void bind(PreparedStatement ps) throws SQLException {
+            ps.setString(1, slot);
+            ps.setString(2, player);
+            ps.setString(3, scene);
+            ps.setInt(4, sanity);
+            ps.setString(5, pacing);
+            ps.setBytes(6, state);
+            ps.setBoolean(7, SaveJournal.SLOT.equals(slot));
+            ps.setString(8, player);
+            ps.setString(9, createdAt);
+            ps.setLong(10, gen);
+            if (ring != null) {
+                ps.setLong(11, ring);
+            } else {
+                // the NOT EXISTS key of INSERT_RINGLESS
+                ps.setString(11, player);
+                ps.setString(12, slot);
+                ps.setLong(13, gen);
+            }
+        }
+    }
+
+    /** Just enough JSON for one flat save object per line. */
+    static final class Json {
+        private final String s;
+        private int i;
+
+        private Json(String s) { this.s = s; }
+
+        static Map<String, Object> parse(String line) {
+            Json j = new Json(line);
+            j.ws();
+            Object v = j.value();
+            j.ws();
+            if (!(v instanceof Map) || j.i != line.length()) throw new IllegalArgumentException("not one JSON object");
+            @SuppressWarnings("unchecked")
+            Map<String, Object> m = (Map<String, Object>) v;
+            return m;
+        }
+
+        static StringBuilder field(StringBuilder sb, String key, String value) {
+            sb.append('"').append(key).append("\":");
+            if (value == null) return sb.append("null");
+            return string(sb, value);
+        }
+
+        static StringBuilder string(StringBuilder sb, String v) {
+            sb.append('"');
+            for (int k = 0; k < v.length(); k++) {
+                char c = v.charAt(k);
+                switch (c) {
+                    case '"': sb.append("\\\""); break;
+                    case '\\': sb.append("\\\\"); break;
+                    case '\n': sb.append("\\n"); break;
+                    case '\r': sb.append("\\r"); break;
+                    case '\t': sb.append("\\t"); break;
+                    default:
+                        if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                        else sb.append(c);
+                }
+            }
+            return sb.append('"');
+        }
+
+        private Object value() {
+            if (i >= s.length()) throw error("unexpected end");
+            char c = s.charAt(i);
+            switch (c) {
+                case '{': return object();
+                case '[': return array();
+                case '"': return string();
+                case 'n': return literal("null", null);
+                case 't': return literal("true", Boolean.TRUE);
+                case 'f': return literal("false", Boolean.FALSE);
+                default: return number();
+            }
+        }
+
+        private Map<String, Object> object() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            i++;
+            ws();
+            if (peek() == '}') {
+                i++;
+                return m;
+            }
+            while (true) {
+                ws();
+                if (peek() != '"') throw error("expected a key");
+                String key = string();
+                ws();
+                expect(':');
+                ws();
+                m.put(key, value());
+                ws();
+                if (peek() == ',') {
+                    i++;
+                    continue;
+                }
+                expect('}');
+                return m;
+            }
+        }
+
+        private List<Object> array() {
+            List<Object> l = new ArrayList<>();
+            i++;
+            ws();
+            if (peek() == ']') {
+                i++;
+                return l;
+            }
+            while (true) {
+                ws();
+                l.add(value());
+                ws();
+                if (peek() == ',') {
+                    i++;
+                    continue;
+                }
+                expect(']');
+                return l;
+            }
+        }
+
+        private String string() {
+            StringBuilder sb = new StringBuilder();
+            i++;
+            while (true) {
+                if (i >= s.length()) throw error("unterminated string");
+                char c = s.charAt(i++);
+                if (c == '"') return sb.toString();
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (i >= s.length()) throw error("unterminated string");
+                char e = s.charAt(i++);
+                switch (e) {
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        if (i + 4 > s.length()) throw error("bad escape");
+                        sb.append((char) Integer.parseInt(s.substring(i, i + 4), 16));
+                        i += 4;
+                        break;
+                    default: sb.append(e); // \" \\ \/
+                }
+            }
+        }
+
+        private Number number() {
+            int start = i;
+            while (i < s.length() && "+-0123456789.eE".indexOf(s.charAt(i)) >= 0) i++;
+            String n = s.substring(start, i);
+            if (n.isEmpty()) throw error("unexpected '" + s.charAt(start) + "'");
+            try {
+                if (n.indexOf('.') < 0 && n.indexOf('e') < 0 && n.indexOf('E') < 0) return Long.parseLong(n);
+                return Double.parseDouble(n);
+            } catch (NumberFormatException e) {
+                throw error("bad number " + n);
+            }
+        }
+
+        private Object literal(String word, Object v) {
+            if (!s.startsWith(word, i)) throw error("unexpected '" + s.charAt(i) + "'");
+            i += word.length();
+            return v;
+        }
+
+        private void ws() {
+            while (i < s.length() && Character.isWhitespace(s.charAt(i))) i++;
+        }
+
+        private char peek() { return i < s.length() ? s.charAt(i) : '\0'; }
+
+        private void expect(char c) {
+            if (peek() != c) throw error("expected '" + c + "'");
+            i++;
+        }
+
+        private IllegalArgumentException error(String msg) {
+            return new IllegalArgumentException(msg + " at column " + (i + 1));
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.fractured.db;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Ordered schema migrations. The version a database is at lives in SQLite's
+ * {@code PRAGMA user_version}; at startup every migration above it runs in
+ * its own transaction, which also bumps the version, so a crash halfway
+ * leaves the database at the last migration that finished.
+ *
+ * Add new migrations at the end with the next version number and never
+ * edit one that has shipped.
+ */
+final class SchemaMigrations {
+
+    private SchemaMigrations() { }
+
+    interface Step {
+        void apply(Statement st) throws SQLException;
+    }
+
+    static final class Migration {
+        final int version;
+        final String description;
+        final Step step;
+
+        Migration(int version, String description, Step step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+
+    static final List<Migration> ALL = List.of(
+        new Migration(1, "saves table", st -> st.execute("""
+            CREATE TABLE IF NOT EXISTS saves (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                save_name TEXT NOT NULL,
+                player_name TEXT,
+                current_scene TEXT,
+                inventory TEXT,
+                created_at DATETIME DEFAULT CURRENT_TIMESTAMP
+            )
+            """)),
+        new Migration(2, "save slots with history rings", st -> {
+            // databases from before save slots: every old row becomes history of its slot, in id order
+            if (!hasColumn(st, "saves", "gen")) {
+                st.execute("ALTER TABLE saves ADD COLUMN gen INTEGER NOT NULL DEFAULT 0");
+                st.execute("ALTER TABLE saves ADD COLUMN ring INTEGER");
+                st.execute("UPDATE saves SET gen = id");
+            }
+            // one row per (player, slot, ring position); the upsert in SaveDAO relies on it
+            st.execute("CREATE UNIQUE INDEX IF NOT EXISTS saves_slot ON saves(player_name, save_name, ring)");
+            st.execute("CREATE INDEX IF NOT EXISTS saves_slot_gen ON saves(player_name, save_name, gen)");
+        }),
+        new Migration(3, "index for the latest save of a player", st ->
+            st.execute("CREATE INDEX IF NOT EXISTS saves_player_created ON saves(player_name, created_at)")),
+        new Migration(4, "sanity and pacing columns", st -> {
+            // rows saved before this loaded at full sanity anyway, so that is what they get
+            st.execute("ALTER TABLE saves ADD COLUMN sanity INTEGER NOT NULL DEFAULT 100");
+            st.execute("ALTER TABLE saves ADD COLUMN pacing TEXT");
+        }),
+        new Migration(5, "binary state column and name table", st -> {
+            // SaveCodec blob; rows that have one leave inventory empty
+            st.execute("ALTER TABLE saves ADD COLUMN state BLOB");
+            st.execute("CREATE TABLE IF NOT EXISTS names (id INTEGER PRIMARY KEY, name TEXT NOT NULL UNIQUE)");
+        }),
+        new Migration(6, "save journal", st -> {
+            // one row per event, see SaveJournal; names are ids in the names table
+            st.execute("""
+                CREATE TABLE IF NOT EXISTS save_events (
+                    player_name TEXT NOT NULL,
+                    seq INTEGER NOT NULL,
+                    kind INTEGER NOT NULL,
+                    name_id INTEGER,
+                    arg INTEGER,
+                    input TEXT,
+                    PRIMARY KEY (player_name, seq)
+                ) WITHOUT ROWID
+                """);
+            // the event a journal snapshot row was taken after
+            st.execute("ALTER TABLE saves ADD COLUMN journal_seq INTEGER");
+        }),
+        // SaveCompactor finds slots with more history than the depth (ringless or wider rings) through it
+        new Migration(7, "index on ring position", st ->
+            st.execute("CREATE INDEX IF NOT EXISTS saves_ring ON saves(ring)"))
+    );
+
+    static int latestVersion() { return ALL.get(ALL.size() - 1).version; }
+
+    static int currentVersion(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Brings {@code conn}'s database up to {@code target} and returns the
+     * version it ends at. Refuses a database newer than this code knows.
+     */
+    static int migrate(Connection conn, int target) throws SQLException {
+        int version = currentVersion(conn);
+        if (version > latestVersion()) {
+            throw new SQLException("database schema v" + version + " is newer than this game (v" + latestVersion() + ")");
+        }
+        boolean auto = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (Statement st = conn.createStatement()) {
+            for (Migration m : ALL) {
+                if (m.version <= version || m.version > target) continue;
+                try {
+                    m.step.apply(st);
+                    st.execute("PRAGMA user_version = " + m.version);
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw new SQLException("migration v" + m.version + " (" + m.description + ") failed: " + e.getMessage(), e);
+                }
+                version = m.version;
+                System.out.println("✔ Schema migrated to v" + m.version + ": " + m.description);
+            }
+        } finally {
+            conn.setAutoCommit(auto);
+        }
+        return version;
+    }
+
+    private static boolean hasColumn(Statement st, String table, String column) throws SQLException {
+        try (ResultSet rs = st.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) return true;
+            }
+            return false;
+        }
+    }
+}
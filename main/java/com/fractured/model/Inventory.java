@@ -1,14 +1,164 @@
 package com.fractured.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Items carried, as a bitset over {@link ItemCatalog} ids plus a count for
+ * items carried more than once. The first 64 items the game interns fit in
+ * one long, so a typical inventory is that long and an int.
+ *
+ * Items keep list semantics: adding twice means carrying two, remove takes
+ * one. Listing order is catalog order (first time the game saw the item),
+ * not the order this player picked them up.
+ *
+ * {@link #copy()} is O(1): the overflow arrays are shared between the copies
+ * and cloned by whichever side writes to them first, so snapshots and forks
+ * of a state cost a few words each.
+ */
 public class Inventory {
-    private final List<String> items = new ArrayList<>();
+    private long bits;         // ids 0..63
+    private long[] more;       // ids 64 and up, null until needed
+    private int[] extra;       // copies beyond the first, by id; null until needed
+    private int size;
+    private boolean shared;    // more/extra may be seen by another inventory; clone before writing
 
-    public void add(String item) { items.add(item); }
-    public boolean remove(String item) { return items.remove(item); }
-    public List<String> list() { return new ArrayList<>(items); }
-    public boolean contains(String item) { return items.contains(item); }
-    public int size() { return items.size(); }
+    public void add(String item) { add(ItemCatalog.id(item)); }
+
+    public void add(int id) {
+        if (!has(id)) {
+            set(id, true);
+        } else {
+            if (extra == null) extra = new int[Math.max(id + 1, 8)];
+            else if (extra.length <= id) extra = Arrays.copyOf(extra, id + 1);
+            else if (shared) unshare();
+            extra[id]++;
+        }
+        size++;
+    }
+
+    public boolean remove(String item) {
+        int id = ItemCatalog.find(item);
+        return id >= 0 && remove(id);
+    }
+
+    public boolean remove(int id) {
+        if (!has(id)) return false;
+        if (extra != null && id < extra.length && extra[id] > 0) {
+            if (shared) unshare();
+            extra[id]--;
+        } else {
+            set(id, false);
+        }
+        size--;
+        return true;
+    }
+
+    public boolean contains(String item) {
+        int id = ItemCatalog.find(item);
+        return id >= 0 && has(id);
+    }
+
+    public boolean contains(int id) { return has(id); }
+
+    /** How many of the item are carried. */
+    public int count(int id) {
+        if (!has(id)) return 0;
+        return 1 + (extra != null && id < extra.length ? extra[id] : 0);
+    }
+
+    public int size() { return size; }
+
+    /**
+     * Next carried item id at or after {@code from}, or -1; iterate with
+     * {@code for (int id = inv.next(0); id >= 0; id = inv.next(id + 1))}.
+     */
+    public int next(int from) {
+        if (from < 64) {
+            long w = from < 0 ? bits : bits & (-1L << from);
+            if (w != 0) return Long.numberOfTrailingZeros(w);
+            from = 64;
+        }
+        if (more == null) return -1;
+        int word = (from - 64) >>> 6;
+        if (word >= more.length) return -1;
+        long w = more[word] & (-1L << (from & 63));
+        while (true) {
+            if (w != 0) return 64 + word * 64 + Long.numberOfTrailingZeros(w);
+            if (++word == more.length) return -1;
+            w = more[word];
+        }
+    }
+
+    /** Fresh list of the items, one entry per copy carried. */
+    public List<String> list() {
+        List<String> l = new ArrayList<>(size);
+        for (int id = next(0); id >= 0; id = next(id + 1)) {
+            String name = ItemCatalog.name(id);
+            for (int c = count(id); c > 0; c--) l.add(name);
+        }
+        return l;
+    }
+
+    /** The items joined with {@code sep}, one entry per copy, without building a list. */
+    public String join(String sep) {
+        StringBuilder sb = new StringBuilder();
+        for (int id = next(0); id >= 0; id = next(id + 1)) {
+            String name = ItemCatalog.name(id);
+            for (int c = count(id); c > 0; c--) {
+                if (sb.length() > 0) sb.append(sep);
+                sb.append(name);
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() { return "[" + join(", ") + "]"; }
+
+    public Inventory copy() {
+        Inventory c = new Inventory();
+        c.assign(this);
+        return c;
+    }
+
+    /** Makes this inventory hold exactly what {@code other} holds, sharing its arrays. */
+    public void assign(Inventory other) {
+        if (other == this) return;
+        bits = other.bits;
+        more = other.more;
+        extra = other.extra;
+        size = other.size;
+        boolean any = more != null || extra != null;
+        shared = any;
+        if (any) other.shared = true;
+    }
+
+    private void unshare() {
+        if (more != null) more = more.clone();
+        if (extra != null) extra = extra.clone();
+        shared = false;
+    }
+
+    private boolean has(int id) {
+        if (id < 64) return (bits & (1L << id)) != 0;
+        int word = (id - 64) >>> 6;
+        return more != null && word < more.length && (more[word] & (1L << (id & 63))) != 0;
+    }
+
+    private void set(int id, boolean on) {
+        if (id < 64) {
+            bits = on ? bits | (1L << id) : bits & ~(1L << id);
+            return;
+        }
+        int word = (id - 64) >>> 6;
+        if (more == null || word >= more.length) {
+            if (!on) return;
+            more = more == null ? new long[word + 1] : Arrays.copyOf(more, word + 1);
+        } else if (shared) {
+            unshare();
+        }
+        more[word] = on ? more[word] | (1L << (id & 63)) : more[word] & ~(1L << (id & 63));
+    }
 }
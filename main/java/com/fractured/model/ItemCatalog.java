@@ -0,0 +1,45 @@
+package com.fractured.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Every item name the game has seen, interned to a small int. Ids are
+ * handed out in order of first use and never change, so an
+ * {@link Inventory} can be a bitset over them. Shared by all sessions.
+ */
+public final class ItemCatalog {
+    private static final ConcurrentHashMap<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static volatile String[] names = new String[64];
+    private static int count; // guarded by the class lock
+
+    private ItemCatalog() { }
+
+    /** Id of {@code name}, interning it on first use. */
+    public static int id(String name) {
+        Integer id = IDS.get(name);
+        return id != null ? id : intern(name);
+    }
+
+    /** Id of {@code name}, or -1 if no one has used it yet. */
+    public static int find(String name) {
+        Integer id = IDS.get(name);
+        return id == null ? -1 : id;
+    }
+
+    public static String name(int id) { return names[id]; }
+
+    /** Number of distinct items interned so far. */
+    public static synchronized int size() { return count; }
+
+    private static synchronized int intern(String name) {
+        Integer id = IDS.get(name);
+        if (id != null) return id;
+        String[] n = names;
+        if (count == n.length) n = Arrays.copyOf(n, n.length * 2);
+        n[count] = name;
+        names = n; // publish the name before the id
+        IDS.put(name, count);
+        return count++;
+    }
+}
@@ -1,14 +1,120 @@
 package com.fractured.model;
 
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * The player. Sanity is updated with compare-and-set, so the main loop,
+ * the whisper thread and UI code can all read and change it without
+ * holding a lock, and no change is lost. It stays within
+ * {@link #MIN_SANITY}..{@link #MAX_SANITY}.
+ */
 public class Player {
+    public static final int MIN_SANITY = 0;
+    public static final int MAX_SANITY = 100;
+
+    private static final AtomicIntegerFieldUpdater<Player> SANITY =
+            AtomicIntegerFieldUpdater.newUpdater(Player.class, "sanity");
+    private static final AtomicReferenceFieldUpdater<Player, SanityListener[]> LISTENERS =
+            AtomicReferenceFieldUpdater.newUpdater(Player.class, SanityListener[].class, "listeners");
+    private static final SanityListener[] NONE = new SanityListener[0];
+
     private String name;
-    private int sanity = 100;
-    private final Inventory inventory = new Inventory();
+    private volatile int sanity = MAX_SANITY;
+    // copy-on-write so notifying is a volatile read and a loop, nothing allocated
+    private volatile SanityListener[] listeners = NONE;
+    private SanityListener.Subscription changeListener; // the one set via setSanityChangeListener
+    private final Inventory inventory;
+
+    public Player(String name) { this(name, new Inventory()); }
+
+    private Player(String name, Inventory inventory) {
+        this.name = name;
+        this.inventory = inventory;
+    }
+
+    /** Independent copy: same name, sanity and items, O(1). Listeners stay with this player. */
+    public Player copy() {
+        Player c = new Player(name, inventory.copy());
+        c.sanity = sanity;
+        return c;
+    }
+
+    /**
+     * Takes on {@code other}'s name, sanity and items, e.g. to rewind to a
+     * snapshot. Listeners stay and hear the sanity change like any other.
+     */
+    public void restoreFrom(Player other) {
+        name = other.name;
+        inventory.assign(other.inventory);
+        setSanity(other.sanity);
+    }
 
-    public Player(String name) { this.name = name; }
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
     public int getSanity() { return sanity; }
-    public void modifySanity(int delta) { sanity += delta; }
     public Inventory getInventory() { return inventory; }
+
+    /**
+     * Adds {@code delta} to sanity, clamped to the allowed range, and
+     * returns the new value. Safe to call from any thread.
+     */
+    public int modifySanity(int delta) {
+        int from, to;
+        do {
+            from = sanity;
+            to = clamp((long) from + delta);
+        } while (from != to && !SANITY.compareAndSet(this, from, to));
+        if (from != to) fire(from, to);
+        return to;
+    }
+
+    /** Sets sanity outright (clamped), e.g. when loading a save. */
+    public void setSanity(int value) {
+        int to = clamp(value);
+        int from = SANITY.getAndSet(this, to);
+        if (from != to) fire(from, to);
+    }
+
+    /** Calls {@code l} after every change until the returned handle is closed. */
+    public SanityListener.Subscription subscribe(SanityListener l) {
+        SanityListener[] cur, next;
+        do {
+            cur = listeners;
+            next = Arrays.copyOf(cur, cur.length + 1);
+            next[cur.length] = l;
+        } while (!LISTENERS.compareAndSet(this, cur, next));
+        return () -> unsubscribe(l);
+    }
+
+    /**
+     * Single-slot form of {@link #subscribe} for the sanity popup: replaces
+     * whatever was set before, {@code null} clears it.
+     */
+    public synchronized void setSanityChangeListener(Runnable r) {
+        if (changeListener != null) changeListener.close();
+        changeListener = r == null ? null : subscribe((p, from, to) -> r.run());
+    }
+
+    private void unsubscribe(SanityListener l) {
+        SanityListener[] cur, next;
+        do {
+            cur = listeners;
+            int i = 0;
+            while (i < cur.length && cur[i] != l) i++;
+            if (i == cur.length) return;
+            next = cur.length == 1 ? NONE : new SanityListener[cur.length - 1];
+            System.arraycopy(cur, 0, next, 0, i);
+            System.arraycopy(cur, i + 1, next, i, cur.length - i - 1);
+        } while (!LISTENERS.compareAndSet(this, cur, next));
+    }
+
+    private void fire(int from, int to) {
+        for (SanityListener l : listeners) l.sanityChanged(this, from, to);
+    }
+
+    private static int clamp(long v) {
+        return (int) Math.max(MIN_SANITY, Math.min(MAX_SANITY, v));
+    }
 }
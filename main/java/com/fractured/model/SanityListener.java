@@ -0,0 +1,17 @@
+package com.fractured.model;
+
+/**
+ * Told when a player's sanity actually changes. Runs on whichever thread
+ * made the change (main loop, whisper thread, a script) right after it
+ * lands, with no lock held, so keep it short and don't block.
+ */
+@FunctionalInterface
+public interface SanityListener {
+    void sanityChanged(Player player, int from, int to);
+
+    /** Handle returned by {@link Player#subscribe}; closing it stops further calls. */
+    interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,227 @@
+package com.fractured.sim;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fractured.core.ChoiceScene;
+import com.fractured.core.GameEngine;
+import com.fractured.core.GameSession;
+import com.fractured.core.GameState;
+import com.fractured.core.Scene;
+import com.fractured.core.SceneOutput;
+import com.fractured.core.StepResult;
+import com.fractured.model.Inventory;
+import com.fractured.model.Player;
+
+/**
+ * Walks every state reachable from a starting GameState by trying every
+ * option of every choice. States are (scene, sanity, inventory) and are
+ * deduplicated by a 64-bit fingerprint, so hubs and loops are expanded once.
+ *
+ * The search is breadth-first, one level per choice, and each level is
+ * expanded in parallel on the fork-join pool; the first path found to an
+ * ending is therefore a shortest one. The visited set moves off-heap once it
+ * passes {@link #setSpillThreshold}.
+ *
+ * Frontier nodes are not kept as GameStates: each is a few bytes of scene,
+ * sanity and items plus an id into a {@link PathLog}, and is rebuilt on top of
+ * a fork of the starting state when expanded. A level bigger than
+ * {@link #setFrontierLimit} spills the rest of its nodes to a temp file.
+ */
+public class BranchExplorer {
+    // fingerprint layout: 19 bits scene index | 8 bits sanity | 36 bits item set
+    private static final int SANITY_SHIFT = 36;
+    private static final int SCENE_SHIFT = 44;
+    private static final int MAX_ITEMS = 36;
+    private static final int NO_CHOICE = -1; // scene index passed for the opening step, before any choice
+    // one per worker: forks only print through the session just made on this thread,
+    // and a shared PrintStream would have every worker queue on its lock
+    private static final ThreadLocal<SceneOutput> DISCARD = ThreadLocal.withInitial(SceneOutput::discarding);
+
+    private final GameEngine engine;
+    private int maxDepth = 1000;
+    private int sanityCap = 100;
+    private long spillThreshold = 1_000_000;
+    private int frontierLimit = 250_000;
+
+    public BranchExplorer(GameEngine engine) {
+        this.engine = engine;
+        engine.freeze();
+    }
+
+    /** Stops after this many choices on any path. */
+    public void setMaxDepth(int maxDepth) { this.maxDepth = maxDepth; }
+
+    /**
+     * Sanity above this counts as equal when deduplicating (at most 255).
+     * Only running out of sanity changes the route, so a cap at or above the
+     * starting sanity loses nothing in practice.
+     */
+    public void setSanityCap(int sanityCap) { this.sanityCap = Math.min(255, sanityCap); }
+
+    /** Visited-set size at which it moves off-heap. */
+    public void setSpillThreshold(long spillThreshold) { this.spillThreshold = spillThreshold; }
+
+    /** Frontier nodes per level kept in memory; the rest go to a temp file until expanded. */
+    public void setFrontierLimit(int frontierLimit) { this.frontierLimit = frontierLimit; }
+
+    public ExplorationReport explore(GameState start) {
+        long t0 = System.nanoTime();
+        VisitedSet visited = new VisitedSet(spillThreshold);
+        Map<String, List<String>> endings = new ConcurrentHashMap<>();
+        Map<String, List<String>> stuck = new ConcurrentHashMap<>();
+
+        Frontier frontier = new Frontier(frontierLimit);
+        int depth = 0;
+        try (PathLog paths = new PathLog()) {
+            Run run = new Run(start, paths, visited, endings, stuck);
+            GameSession session = GameSession.headless(engine, start.fork(DISCARD.get()));
+            byte[] root = run.visit(session, engine.step(session, null), PathLog.ROOT, NO_CHOICE, 0);
+            if (root != null) frontier.addAll(List.of(root));
+
+            while (!frontier.isEmpty() && depth < maxDepth) {
+                depth++;
+                Frontier next = new Frontier(frontierLimit);
+                frontier.drain(batch -> batch.parallelStream().forEach(n -> next.addAll(run.expand(n))));
+                frontier.close();
+                frontier = next;
+                visited.spillIfLarge();
+            }
+            boolean truncated = !frontier.isEmpty();
+            frontier.close();
+            return new ExplorationReport(endings, stuck, visited.size(), depth, truncated,
+                    visited.offHeapBytes(), System.nanoTime() - t0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** State shared by the workers of one {@link #explore} call. */
+    private final class Run {
+        final GameState start;
+        final PathLog paths;
+        final VisitedSet visited;
+        final Map<String, List<String>> endings;
+        final Map<String, List<String>> stuck;
+
+        Run(GameState start, PathLog paths, VisitedSet visited,
+            Map<String, List<String>> endings, Map<String, List<String>> stuck) {
+            this.start = start;
+            this.paths = paths;
+            this.visited = visited;
+            this.endings = endings;
+            this.stuck = stuck;
+        }
+
+        List<byte[]> expand(byte[] node) {
+            ByteBuffer in = ByteBuffer.wrap(node);
+            long path = in.getLong();
+            int sceneIndex = in.getInt();
+            String sceneId = engine.sceneId(sceneIndex);
+            Scene s = engine.getScene(sceneId);
+            int options = s instanceof ChoiceScene ? ((ChoiceScene) s).getChoiceCount() : 1;
+            List<byte[]> next = new ArrayList<>(options);
+            for (int opt = 1; opt <= options; opt++) {
+                GameSession session = GameSession.headless(engine, decode(node, sceneId));
+                StepResult r = engine.step(session, Integer.toString(opt));
+                byte[] child = visit(session, r, path, sceneIndex, opt);
+                if (child != null) next.add(child);
+            }
+            return next;
+        }
+
+        /**
+         * Records an ending or stuck state reached by taking {@code option} at
+         * {@code sceneIndex} after {@code parent}; returns the encoded node to
+         * expand if the state is new.
+         */
+        byte[] visit(GameSession session, StepResult r, long parent, int sceneIndex, int option) {
+            GameState state = session.getState();
+            if (r.isEnded()) {
+                if (state.getPlayer().getSanity() <= 0) {
+                    record(endings, "darkness@" + session.getLastScene(), parent, sceneIndex, option);
+                } else if (state.getCurrentScene() == null) {
+                    record(endings, "end@" + session.getLastScene(), parent, sceneIndex, option);
+                } else {
+                    record(stuck, "broken@" + state.getCurrentScene(), parent, sceneIndex, option);
+                }
+                return null;
+            }
+            if (!visited.add(fingerprint(state))) return null;
+            long path = sceneIndex == NO_CHOICE ? parent : paths.append(parent, sceneIndex, option);
+            return encode(state, path);
+        }
+
+        // only the first path to each label is kept, so only that one is rendered
+        private void record(Map<String, List<String>> into, String label, long parent, int sceneIndex, int option) {
+            if (into.containsKey(label)) return;
+            List<String> steps = render(parent);
+            if (sceneIndex != NO_CHOICE) steps.add(engine.sceneId(sceneIndex) + "=" + option);
+            into.putIfAbsent(label, steps);
+        }
+
+        private List<String> render(long id) {
+            List<String> steps = new ArrayList<>();
+            for (; id != PathLog.ROOT; id = paths.parent(id)) {
+                steps.add(engine.sceneId(paths.sceneIndex(id)) + "=" + paths.option(id));
+            }
+            Collections.reverse(steps);
+            return steps;
+        }
+
+        // node layout: path id, scene index, sanity, item count, then (item id, copies) pairs
+        private byte[] encode(GameState state, long path) {
+            Player p = state.getPlayer();
+            Inventory inv = p.getInventory();
+            int kinds = 0;
+            for (int id = inv.next(0); id >= 0; id = inv.next(id + 1)) kinds++;
+            ByteBuffer out = ByteBuffer.allocate(8 + 4 + 4 + 2 + kinds * 6);
+            out.putLong(path).putInt(state.getSceneIndex()).putInt(p.getSanity()).putShort((short) kinds);
+            for (int id = inv.next(0); id >= 0; id = inv.next(id + 1)) {
+                out.putShort((short) id).putInt(inv.count(id));
+            }
+            return out.array();
+        }
+
+        // name and pacing never change while exploring, so they come from the start state
+        private GameState decode(byte[] node, String sceneId) {
+            ByteBuffer in = ByteBuffer.wrap(node, 12, node.length - 12);
+            GameState state = start.fork(DISCARD.get());
+            state.setCurrentScene(sceneId);
+            Player p = state.getPlayer();
+            p.setSanity(in.getInt());
+            Inventory inv = new Inventory();
+            for (int kinds = in.getShort(); kinds > 0; kinds--) {
+                int id = in.getShort();
+                for (int c = in.getInt(); c > 0; c--) inv.add(id);
+            }
+            p.getInventory().assign(inv);
+            return state;
+        }
+    }
+
+    private long fingerprint(GameState state) {
+        long scene = state.getSceneIndex();
+        long sanity = Math.max(0, Math.min(sanityCap, state.getPlayer().getSanity()));
+        Inventory inv = state.getPlayer().getInventory();
+        long items = 0;
+        for (int id = inv.next(0); id >= 0; id = inv.next(id + 1)) {
+            items |= 1L << itemBit(id);
+        }
+        return (scene << SCENE_SHIFT) | (sanity << SANITY_SHIFT) | items;
+    }
+
+    // catalog ids are dense, so they double as fingerprint bits
+    private static int itemBit(int id) {
+        if (id >= MAX_ITEMS) {
+            throw new IllegalStateException("More than " + MAX_ITEMS + " distinct items, fingerprint cannot hold them");
+        }
+        return id;
+    }
+}
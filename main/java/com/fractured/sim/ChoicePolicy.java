@@ -0,0 +1,55 @@
+package com.fractured.sim;
+
+import java.util.random.RandomGenerator;
+
+import com.fractured.core.GameState;
+
+/**
+ * Decides what a simulated player answers at a choice. Policies are shared
+ * by every playthrough of a run, so they must not keep per-run state:
+ * everything they need (which decision this is, the scene, the randomness)
+ * is passed in.
+ */
+public interface ChoicePolicy {
+
+    /**
+     * @param decision how many choices this playthrough has already made
+     * @param sceneId  the scene waiting for input
+     * @param options  how many options it offers
+     * @return the 1-based option to pick, or 0 to abandon the playthrough
+     */
+    int choose(int decision, String sceneId, int options, GameState state, RandomGenerator rnd);
+
+    /**
+     * Replays a fixed list of answers, then abandons the playthrough.
+     */
+    static ChoicePolicy scripted(int... picks) {
+        int[] script = picks.clone();
+        return (decision, sceneId, options, state, rnd) -> decision < script.length ? script[decision] : 0;
+    }
+
+    /**
+     * Picks every option with equal probability.
+     */
+    static ChoicePolicy uniform() {
+        return (decision, sceneId, options, state, rnd) -> 1 + rnd.nextInt(options);
+    }
+
+    /**
+     * Picks option {@code k} with probability proportional to {@code weights[k-1]};
+     * options beyond the array weigh 1.
+     */
+    static ChoicePolicy weighted(double... weights) {
+        double[] w = weights.clone();
+        return (decision, sceneId, options, state, rnd) -> {
+            double total = 0;
+            for (int k = 0; k < options; k++) total += k < w.length ? w[k] : 1.0;
+            double roll = rnd.nextDouble() * total;
+            for (int k = 0; k < options; k++) {
+                roll -= k < w.length ? w[k] : 1.0;
+                if (roll < 0) return k + 1;
+            }
+            return options;
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.fractured.sim;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Result of a {@link BranchExplorer} run: every ending that can be reached,
+ * the shortest choice path to each, and the states where play gets stuck.
+ */
+public class ExplorationReport {
+    private final Map<String, List<String>> endings;
+    private final Map<String, List<String>> stuck;
+    private final long states;
+    private final int depth;
+    private final boolean truncated;
+    private final long offHeapBytes;
+    private final long elapsedNanos;
+
+    ExplorationReport(Map<String, List<String>> endings, Map<String, List<String>> stuck, long states,
+                      int depth, boolean truncated, long offHeapBytes, long elapsedNanos) {
+        this.endings = Collections.unmodifiableMap(new TreeMap<>(endings));
+        this.stuck = Collections.unmodifiableMap(new TreeMap<>(stuck));
+        this.states = states;
+        this.depth = depth;
+        this.truncated = truncated;
+        this.offHeapBytes = offHeapBytes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /** Ending label ("end@scene" or "darkness@scene") to the shortest path reaching it. */
+    public Map<String, List<String>> getEndings() { return endings; }
+
+    /** Where play broke off (missing scene, failing scene, endless loop) to a path reaching it. */
+    public Map<String, List<String>> getStuck() { return stuck; }
+
+    /** Distinct (scene, sanity, inventory) states visited. */
+    public long getStates() { return states; }
+
+    /** Number of choices on the longest explored path. */
+    public int getDepth() { return depth; }
+
+    /** True if the depth limit stopped the search before the frontier ran dry. */
+    public boolean isTruncated() { return truncated; }
+
+    public long getOffHeapBytes() { return offHeapBytes; }
+
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    @Override
+    public String toString() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("%d states, depth %d%s, %.2fs%s", states, depth, truncated ? " (truncated)" : "",
+                elapsedNanos / 1e9, offHeapBytes > 0 ? ", visited set off-heap " + (offHeapBytes >> 10) + " KiB" : ""));
+        lines.add("Reachable endings (" + endings.size() + "):");
+        endings.forEach((e, path) -> lines.add("  " + e + "  [" + path.size() + " choices] " + String.join(" ", path)));
+        lines.add("Stuck states (" + stuck.size() + "):");
+        stuck.forEach((e, path) -> lines.add("  " + e + "  [" + path.size() + " choices] " + String.join(" ", path)));
+        return String.join(System.lineSeparator(), lines);
+    }
+}
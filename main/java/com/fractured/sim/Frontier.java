@@ -0,0 +1,100 @@
+package com.fractured.sim;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * One breadth-first level of the explorer, as compact encoded nodes. The
+ * first {@code limit} nodes stay on-heap; the rest are appended to a temp
+ * file. {@link #drain} hands them back in batches of at most {@code limit},
+ * so a level in flight and the one being built hold about two limits' worth.
+ */
+class Frontier implements Closeable {
+    private final int limit;
+    private final List<byte[]> heap = new ArrayList<>();
+    private Path file;
+    private DataOutputStream spill;
+    private long spilled;
+
+    Frontier(int limit) {
+        this.limit = Math.max(1, limit);
+    }
+
+    synchronized void addAll(List<byte[]> nodes) {
+        for (byte[] n : nodes) {
+            if (heap.size() < limit) {
+                heap.add(n);
+            } else {
+                write(n);
+            }
+        }
+    }
+
+    synchronized long size() { return heap.size() + spilled; }
+
+    synchronized boolean isEmpty() { return size() == 0; }
+
+    /** Nodes written to disk because the level outgrew the limit. */
+    synchronized long spilled() { return spilled; }
+
+    /** Passes every node to {@code batch}, on-heap ones first, then the spilled ones read back in order. */
+    void drain(Consumer<List<byte[]>> batch) {
+        if (!heap.isEmpty()) batch.accept(heap);
+        if (spill == null) return;
+        try {
+            spill.close();
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+                List<byte[]> chunk = new ArrayList<>(limit);
+                for (long i = 0; i < spilled; i++) {
+                    byte[] n = new byte[in.readUnsignedShort()];
+                    in.readFully(n);
+                    chunk.add(n);
+                    if (chunk.size() == limit) {
+                        batch.accept(chunk);
+                        chunk = new ArrayList<>(limit);
+                    }
+                }
+                if (!chunk.isEmpty()) batch.accept(chunk);
+            }
+        } catch (EOFException e) {
+            throw new IllegalStateException("Frontier spill file " + file + " is truncated", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read frontier spill file " + file, e);
+        }
+    }
+
+    private void write(byte[] n) {
+        try {
+            if (spill == null) {
+                file = Files.createTempFile("explore-", ".frontier");
+                spill = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+            }
+            spill.writeShort(n.length);
+            spill.write(n);
+            spilled++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not spill frontier to " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        heap.clear();
+        if (spill != null) {
+            spill.close();
+            Files.deleteIfExists(file);
+            spill = null;
+        }
+    }
+}
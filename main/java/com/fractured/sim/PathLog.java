@@ -0,0 +1,88 @@
+package com.fractured.sim;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only log of the choices that led to each explored state: one
+ * fixed 16-byte record (parent id, scene index, option) per state, in a
+ * memory-mapped temp file, so frontier nodes only carry a long id and the
+ * path tree stays out of the heap. Appends from many threads are fine; each
+ * one gets its own slot.
+ */
+class PathLog implements Closeable {
+    /** Id of the empty path (the starting state). */
+    static final long ROOT = -1;
+
+    private static final int RECORD = 16;
+    private static final int REGION_RECORDS = 1 << 22; // 64 MiB per mapping
+
+    private final Path file;
+    private final FileChannel channel;
+    private final AtomicLong next = new AtomicLong();
+    private volatile MappedByteBuffer[] regions = new MappedByteBuffer[0];
+
+    PathLog() {
+        try {
+            file = Files.createTempFile("explore-", ".paths");
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create path log", e);
+        }
+    }
+
+    /** @return the id of the path that takes {@code option} at scene {@code sceneIndex} after {@code parent} */
+    long append(long parent, int sceneIndex, int option) {
+        long id = next.getAndIncrement();
+        MappedByteBuffer r = region(id);
+        int at = (int) (id % REGION_RECORDS) * RECORD;
+        r.putLong(at, parent);
+        r.putInt(at + 8, sceneIndex);
+        r.putInt(at + 12, option);
+        return id;
+    }
+
+    long parent(long id) { return region(id).getLong((int) (id % REGION_RECORDS) * RECORD); }
+    int sceneIndex(long id) { return region(id).getInt((int) (id % REGION_RECORDS) * RECORD + 8); }
+    int option(long id) { return region(id).getInt((int) (id % REGION_RECORDS) * RECORD + 12); }
+
+    long size() { return next.get(); }
+
+    private MappedByteBuffer region(long id) {
+        int i = (int) (id / REGION_RECORDS);
+        MappedByteBuffer[] rs = regions;
+        if (i < rs.length) return rs[i];
+        return grow(i);
+    }
+
+    private synchronized MappedByteBuffer grow(int i) {
+        MappedByteBuffer[] rs = regions;
+        if (i < rs.length) return rs[i];
+        rs = Arrays.copyOf(rs, i + 1);
+        try {
+            for (int k = regions.length; k <= i; k++) {
+                long bytes = (long) REGION_RECORDS * RECORD;
+                rs[k] = channel.map(FileChannel.MapMode.READ_WRITE, k * bytes, bytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not grow path log " + file, e);
+        }
+        regions = rs;
+        return rs[i];
+    }
+
+    @Override
+    public void close() throws IOException {
+        regions = new MappedByteBuffer[0];
+        channel.close();
+    }
+}
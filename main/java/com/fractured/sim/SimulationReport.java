@@ -0,0 +1,74 @@
+package com.fractured.sim;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aggregated outcome of a {@link Simulator} run.
+ */
+public class SimulationReport {
+    private final long playthroughs;
+    private final long elapsedNanos;
+    private final long decisions;
+    private final Map<String, Long> endings;
+    private final Map<Integer, Long> sanityHistogram;
+    private final Map<String, Long> itemCounts;
+    private final Map<Integer, Long> inventorySizes;
+
+    SimulationReport(long playthroughs, long elapsedNanos, long decisions, Map<String, Long> endings,
+                     Map<Integer, Long> sanityHistogram, Map<String, Long> itemCounts,
+                     Map<Integer, Long> inventorySizes) {
+        this.playthroughs = playthroughs;
+        this.elapsedNanos = elapsedNanos;
+        this.decisions = decisions;
+        this.endings = Collections.unmodifiableMap(new TreeMap<>(endings));
+        this.sanityHistogram = Collections.unmodifiableMap(new TreeMap<>(sanityHistogram));
+        this.itemCounts = Collections.unmodifiableMap(new TreeMap<>(itemCounts));
+        this.inventorySizes = Collections.unmodifiableMap(new TreeMap<>(inventorySizes));
+    }
+
+    public long getPlaythroughs() { return playthroughs; }
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    public double getPlaythroughsPerSecond() {
+        return elapsedNanos == 0 ? 0 : playthroughs * 1e9 / elapsedNanos;
+    }
+
+    /** "end@scene", "darkness@scene" (sanity ran out), "cutoff@scene", "abandoned@scene" or "broken@scene". */
+    public Map<String, Long> getEndings() { return endings; }
+
+    /** Final sanity bucketed to multiples of 10 (bucket 0 holds everything at or below zero). */
+    public Map<Integer, Long> getSanityHistogram() { return sanityHistogram; }
+
+    /** How many playthroughs ended holding each item. */
+    public Map<String, Long> getItemCounts() { return itemCounts; }
+
+    public Map<Integer, Long> getInventorySizes() { return inventorySizes; }
+
+    @Override
+    public String toString() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("%d playthroughs in %.2fs (%.0f/s, %.0f/min), %.1f choices each",
+                playthroughs, elapsedNanos / 1e9, getPlaythroughsPerSecond(), getPlaythroughsPerSecond() * 60,
+                playthroughs == 0 ? 0.0 : (double) decisions / playthroughs));
+        lines.add("Endings:");
+        endings.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(e -> lines.add(String.format("  %-40s %8d  %5.1f%%", e.getKey(), e.getValue(), pct(e.getValue()))));
+        lines.add("Final sanity:");
+        sanityHistogram.forEach((b, n) -> lines.add(String.format("  %4s %8d  %5.1f%%",
+                b <= 0 ? "<=0" : (b - 9) + "-" + b, n, pct(n))));
+        lines.add("Items held at the end:");
+        itemCounts.forEach((item, n) -> lines.add(String.format("  %-20s %8d  %5.1f%%", item, n, pct(n))));
+        lines.add("Inventory size:");
+        inventorySizes.forEach((size, n) -> lines.add(String.format("  %4d %8d  %5.1f%%", size, n, pct(n))));
+        return String.join(System.lineSeparator(), lines);
+    }
+
+    private double pct(long n) {
+        return playthroughs == 0 ? 0 : 100.0 * n / playthroughs;
+    }
+}
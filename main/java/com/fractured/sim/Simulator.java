@@ -0,0 +1,102 @@
+package com.fractured.sim;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import com.fractured.core.ChoiceScene;
+import com.fractured.core.GameEngine;
+import com.fractured.core.GameSession;
+import com.fractured.core.GameState;
+import com.fractured.core.Scene;
+import com.fractured.core.StepResult;
+import com.fractured.model.Inventory;
+import com.fractured.model.ItemCatalog;
+import com.fractured.model.Player;
+
+/**
+ * Plays the registered story headlessly as fast as the cores allow: no
+ * terminal, no pacing, no Lapati timer, no autosave. Answers come from a
+ * {@link ChoicePolicy}; the run is spread over the common fork-join pool.
+ */
+public class Simulator {
+    private final GameEngine engine;
+    private final Supplier<GameState> newGame;
+    private int maxDecisions = 500;
+
+    /**
+     * @param newGame builds the starting state of one playthrough; its output
+     *                should discard (see {@code SceneOutput.discarding()})
+     */
+    public Simulator(GameEngine engine, Supplier<GameState> newGame) {
+        this.engine = engine;
+        this.newGame = newGame;
+        engine.freeze();
+    }
+
+    /**
+     * Caps how many choices one playthrough may make before it is cut off,
+     * since random players can circle a hub forever.
+     */
+    public void setMaxDecisions(int maxDecisions) { this.maxDecisions = maxDecisions; }
+
+    public SimulationReport run(int playthroughs, ChoicePolicy policy, long seed) {
+        Map<String, LongAdder> endings = new ConcurrentHashMap<>();
+        Map<Integer, LongAdder> sanity = new ConcurrentHashMap<>();
+        Map<String, LongAdder> items = new ConcurrentHashMap<>();
+        Map<Integer, LongAdder> sizes = new ConcurrentHashMap<>();
+        LongAdder decisions = new LongAdder();
+
+        long t0 = System.nanoTime();
+        IntStream.range(0, playthroughs).parallel().forEach(i -> {
+            // per-playthrough stream so a run is reproducible whatever the thread split
+            SplittableRandom rnd = new SplittableRandom(seed + i * 0x9E3779B97F4A7C15L);
+            GameState state = newGame.get();
+            GameSession session = GameSession.headless(engine, state);
+            String ending = play(session, policy, rnd, decisions);
+
+            Player p = state.getPlayer();
+            endings.computeIfAbsent(ending, k -> new LongAdder()).increment();
+            int bucket = p.getSanity() <= 0 ? 0 : ((p.getSanity() + 9) / 10) * 10;
+            sanity.computeIfAbsent(bucket, k -> new LongAdder()).increment();
+            Inventory inv = p.getInventory();
+            for (int id = inv.next(0); id >= 0; id = inv.next(id + 1)) {
+                items.computeIfAbsent(ItemCatalog.name(id), k -> new LongAdder()).add(inv.count(id));
+            }
+            sizes.computeIfAbsent(p.getInventory().size(), k -> new LongAdder()).increment();
+        });
+        long elapsed = System.nanoTime() - t0;
+
+        return new SimulationReport(playthroughs, elapsed, decisions.sum(),
+                sums(endings), sums(sanity), sums(items), sums(sizes));
+    }
+
+    private String play(GameSession session, ChoicePolicy policy, SplittableRandom rnd, LongAdder decisions) {
+        GameState state = session.getState();
+        StepResult r = engine.step(session, null);
+        int made = 0;
+        while (!r.isEnded()) {
+            if (made >= maxDecisions) return "cutoff@" + r.getSceneId();
+            Scene s = engine.getScene(r.getSceneId());
+            int options = s instanceof ChoiceScene ? ((ChoiceScene) s).getChoiceCount() : 1;
+            int pick = policy.choose(made, r.getSceneId(), options, state, rnd);
+            if (pick <= 0) return "abandoned@" + r.getSceneId();
+            made++;
+            decisions.increment();
+            r = engine.step(session, Integer.toString(pick));
+        }
+        if (state.getPlayer().getSanity() <= 0) return "darkness@" + session.getLastScene();
+        if (state.getCurrentScene() != null) return "broken@" + state.getCurrentScene();
+        return "end@" + session.getLastScene();
+    }
+
+    private static <K> Map<K, Long> sums(Map<K, LongAdder> counters) {
+        Map<K, Long> out = new HashMap<>();
+        counters.forEach((k, v) -> out.put(k, v.sum()));
+        return out;
+    }
+}
@@ -0,0 +1,123 @@
+package com.fractured.sim;
+
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Concurrent set of non-negative state fingerprints. It starts as an
+ * ordinary on-heap set; once {@link #spillIfLarge()} sees it past the
+ * threshold it moves every entry into open-addressed tables in direct
+ * (off-heap) buffers, 8 bytes per slot instead of a boxed Long plus a map node.
+ */
+class VisitedSet {
+    private static final int STRIPES = 64;
+
+    private final long spillThreshold;
+    private volatile Set<Long> heap = ConcurrentHashMap.newKeySet();
+    private volatile OffHeapTable[] offHeap;
+
+    VisitedSet(long spillThreshold) {
+        this.spillThreshold = spillThreshold;
+    }
+
+    /** @return true if the fingerprint was not seen before */
+    boolean add(long fp) {
+        OffHeapTable[] tables = offHeap;
+        if (tables != null) return tables[stripe(fp)].add(fp);
+        return heap.add(fp);
+    }
+
+    long size() {
+        OffHeapTable[] tables = offHeap;
+        if (tables == null) return heap.size();
+        long n = 0;
+        for (OffHeapTable t : tables) n += t.size();
+        return n;
+    }
+
+    boolean isOffHeap() { return offHeap != null; }
+
+    long offHeapBytes() {
+        OffHeapTable[] tables = offHeap;
+        if (tables == null) return 0;
+        long n = 0;
+        for (OffHeapTable t : tables) n += t.bytes();
+        return n;
+    }
+
+    /**
+     * Moves the set off-heap once it has grown past the threshold. Must not
+     * run concurrently with {@link #add}; the explorer calls it between levels.
+     */
+    void spillIfLarge() {
+        if (offHeap != null || heap.size() < spillThreshold) return;
+        OffHeapTable[] tables = new OffHeapTable[STRIPES];
+        int perStripe = (int) Math.min(1 << 26, Math.max(1024, heap.size() * 2L / STRIPES));
+        for (int i = 0; i < STRIPES; i++) tables[i] = new OffHeapTable(perStripe);
+        for (long fp : heap) tables[stripe(fp)].add(fp);
+        offHeap = tables;
+        heap = null;
+    }
+
+    private static int stripe(long fp) {
+        return (int) (mix(fp) >>> 58); // top 6 bits -> 64 stripes
+    }
+
+    static long mix(long x) {
+        x ^= x >>> 33;
+        x *= 0xff51afd7ed558ccdL;
+        x ^= x >>> 33;
+        x *= 0xc4ceb9fe1a85ec53L;
+        x ^= x >>> 33;
+        return x;
+    }
+
+    /** Linear-probing long set in a direct buffer; 0 marks an empty slot, so keys are stored +1. */
+    private static final class OffHeapTable {
+        private ByteBuffer slots;
+        private int capacity;
+        private int size;
+
+        OffHeapTable(int minCapacity) {
+            capacity = Integer.highestOneBit(Math.max(16, minCapacity - 1) << 1);
+            slots = ByteBuffer.allocateDirect(capacity * 8);
+        }
+
+        synchronized boolean add(long fp) {
+            if ((size + 1) * 2 > capacity) grow();
+            if (!insert(slots, capacity, fp + 1)) return false;
+            size++;
+            return true;
+        }
+
+        synchronized int size() { return size; }
+
+        synchronized long bytes() { return (long) capacity * 8; }
+
+        private static boolean insert(ByteBuffer buf, int cap, long key) {
+            int mask = cap - 1;
+            int i = (int) mix(key) & mask;
+            while (true) {
+                long cur = buf.getLong(i * 8);
+                if (cur == 0) {
+                    buf.putLong(i * 8, key);
+                    return true;
+                }
+                if (cur == key) return false;
+                i = (i + 1) & mask;
+            }
+        }
+
+        private void grow() {
+            int newCap = capacity << 1;
+            ByteBuffer bigger = ByteBuffer.allocateDirect(newCap * 8);
+            for (int i = 0; i < capacity; i++) {
+                long key = slots.getLong(i * 8);
+                if (key != 0) insert(bigger, newCap, key);
+            }
+            slots = bigger;
+            capacity = newCap;
+        }
+    }
+}
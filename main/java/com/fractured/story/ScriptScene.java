@@ -0,0 +1,125 @@
+package com.fractured.story;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+
+import com.fractured.core.GameException;
+import com.fractured.core.GameState;
+import com.fractured.core.Scene;
+import com.fractured.model.ItemCatalog;
+import com.fractured.model.Player;
+
+/**
+ * A scene from a story file that changes sanity or inventory and picks its
+ * next scene from what the player carries or how sane they still are,
+ * i.e. what anonymous Scene subclasses used to do in code.
+ *
+ * The script is kept as a flat int program (opcodes followed by their
+ * operands) plus a table of the strings it uses, which is also how story
+ * bundles store it. Running it allocates nothing beyond what printing does;
+ * {@link StoryChecker} reads the same program to find mistakes before a
+ * player does.
+ */
+final class ScriptScene extends Scene {
+    // opcodes; "const" operands index consts, "pc" operands index code
+    static final int SAY = 1;             // const: print a line
+    static final int PRINT = 2;           // const: print without ending the line
+    static final int PRINT_SANITY = 3;    // print current sanity
+    static final int PRINT_INVENTORY = 4; // print the items carried
+    static final int SANITY = 5;          // delta
+    static final int ADD = 6;             // const: item
+    static final int REMOVE = 7;          // const: item
+    static final int IF_HAS = 8;          // const, pc: go on if the item is carried, else jump
+    static final int IF_LACKS = 9;        // const, pc: go on if the item is not carried, else jump
+    static final int IF_SANITY_BELOW = 10; // n, pc: go on if sanity < n, else jump
+    static final int IF_EMPTY = 11;       // pc: go on if nothing is carried, else jump
+    static final int JUMP = 12;           // pc
+    static final int GOTO = 13;           // outcome index: the scene ends here
+
+    /** Words per instruction, indexed by opcode. */
+    static final int[] WIDTH = { 0, 2, 2, 1, 1, 2, 2, 2, 3, 3, 3, 2, 2, 2 };
+
+    private final int[] code;
+    private final String[] consts;
+    private final int[] items; // catalog id per const, -1 for consts that are not items
+
+    ScriptScene(String id, String title, List<String> outcomes, int[] code, String[] consts) {
+        super(id, title, outcomes.toArray(new String[0]));
+        this.code = code;
+        this.consts = consts;
+        this.items = new int[consts.length];
+        Arrays.fill(items, -1);
+        for (int pc = 0; pc < code.length; pc += WIDTH[code[pc]]) {
+            int op = code[pc];
+            if (op == ADD || op == REMOVE || op == IF_HAS || op == IF_LACKS) {
+                items[code[pc + 1]] = ItemCatalog.id(consts[code[pc + 1]]);
+            }
+        }
+    }
+
+    int[] code() { return code; }
+
+    String[] consts() { return consts; }
+
+    @Override
+    public String play(GameState state, Scanner in) throws GameException {
+        Player p = state.getPlayer();
+        PrintStream out = state.getOut();
+        int pc = 0;
+        while (pc < code.length) {
+            switch (code[pc]) {
+                case SAY:
+                    out.println(consts[code[pc + 1]]);
+                    pc += 2;
+                    break;
+                case PRINT:
+                    out.print(consts[code[pc + 1]]);
+                    pc += 2;
+                    break;
+                case PRINT_SANITY:
+                    out.print(p.getSanity());
+                    pc += 1;
+                    break;
+                case PRINT_INVENTORY:
+                    out.print(p.getInventory());
+                    pc += 1;
+                    break;
+                case SANITY:
+                    p.modifySanity(code[pc + 1]);
+                    pc += 2;
+                    break;
+                case ADD:
+                    p.getInventory().add(items[code[pc + 1]]);
+                    pc += 2;
+                    break;
+                case REMOVE:
+                    p.getInventory().remove(items[code[pc + 1]]);
+                    pc += 2;
+                    break;
+                case IF_HAS:
+                    pc = p.getInventory().contains(items[code[pc + 1]]) ? pc + 3 : code[pc + 2];
+                    break;
+                case IF_LACKS:
+                    pc = p.getInventory().contains(items[code[pc + 1]]) ? code[pc + 2] : pc + 3;
+                    break;
+                case IF_SANITY_BELOW:
+                    pc = p.getSanity() < code[pc + 1] ? pc + 3 : code[pc + 2];
+                    break;
+                case IF_EMPTY:
+                    pc = p.getInventory().size() == 0 ? pc + 2 : code[pc + 1];
+                    break;
+                case JUMP:
+                    pc = code[pc + 1];
+                    break;
+                case GOTO:
+                    return getTargets().get(code[pc + 1]);
+                default:
+                    throw new GameException("Bad opcode " + code[pc] + " in script " + getId());
+            }
+        }
+        // the parser makes every path end in a "->", so this means a broken script
+        throw new GameException("Script fell through without a target: " + getId());
+    }
+}
@@ -0,0 +1,403 @@
+package com.fractured.story;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+import com.fractured.core.ChoiceScene;
+import com.fractured.core.DialogueScene;
+import com.fractured.core.GameEngine;
+import com.fractured.core.GameState;
+import com.fractured.core.LazyScene;
+import com.fractured.core.Scene;
+import com.fractured.core.SceneGraph;
+import com.fractured.core.SceneOutput;
+
+/**
+ * The whole registered scene graph precompiled into one file and read
+ * through a memory mapping, so startup costs the same however long the
+ * story gets. Scenes are built from the mapping the first time a session
+ * reaches them; dialogue lines stay in the mapping until they are printed.
+ *
+ * Scenes written in Java (anonymous Scene subclasses, effect choices) have
+ * no data form. The bundle keeps only their id, title and targets, and
+ * takes the scene itself from the code at load time.
+ *
+ * <pre>
+ * header   magic, version, scene count, string count, and the offsets of:
+ * scenes   per scene: id, title, kind, data offset
+ * data     dialogue: next, line count, lines
+ *          choice:   prompt, option count, (label, target) per option
+ *          script:   outcome count, outcomes, const count, consts, code length, code
+ *          native:   target count (-1 if it never declared them), targets
+ * strings  offset of each string in the pool, then the UTF-8 pool
+ * </pre>
+ *
+ * Every field is a big-endian int. Strings are pool indexes and targets are
+ * scene indexes, with -1 meaning the story ends.
+ */
+public final class StoryBundle {
+    private static final int MAGIC = 0x46525342; // "FRSB"
+    private static final int VERSION = 1;
+    private static final int HEADER = 32;
+
+    static final int DIALOGUE = 1;
+    static final int CHOICE = 2;
+    static final int SCRIPT = 3;
+    static final int NATIVE = 4;
+
+    private final ByteBuffer buf;
+    private final int sceneCount;
+    private final int stringOffsets;
+    private final int pool;
+    private final int sceneTable;
+    private final AtomicReferenceArray<Scene> loaded;
+
+    private StoryBundle(ByteBuffer buf) {
+        this.buf = buf;
+        if (buf.capacity() < HEADER || buf.getInt(0) != MAGIC) throw new IllegalStateException("Not a story bundle");
+        if (buf.getInt(4) != VERSION) throw new IllegalStateException("Unsupported story bundle version " + buf.getInt(4));
+        this.sceneCount = buf.getInt(8);
+        this.stringOffsets = buf.getInt(16);
+        this.pool = buf.getInt(20);
+        this.sceneTable = buf.getInt(24);
+        this.loaded = new AtomicReferenceArray<>(sceneCount);
+    }
+
+    /**
+     * Maps a bundle written by {@link #write}. The mapping stays valid after
+     * the file is closed.
+     */
+    public static StoryBundle open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            return new StoryBundle(map);
+        }
+    }
+
+    public int size() { return sceneCount; }
+
+    public long mappedBytes() { return buf.capacity(); }
+
+    /**
+     * Registers a lazy stand-in for every scene in the bundle, which must
+     * hold no native refs.
+     */
+    public void registerAll(GameEngine engine) {
+        registerAll(engine, id -> null);
+    }
+
+    /**
+     * Registers a lazy stand-in for every scene in the bundle. Scenes stored
+     * as native refs are looked up in {@code natives} by id when first reached.
+     */
+    public void registerAll(GameEngine engine, Function<String, Scene> natives) {
+        for (int i = 0; i < sceneCount; i++) {
+            final int scene = i;
+            engine.register(new LazyScene(id(i), string(field(i, 1)), targets(i), (id, graph) -> load(scene, graph, natives)));
+        }
+    }
+
+    private Scene load(int i, SceneGraph graph, Function<String, Scene> natives) {
+        Scene s = loaded.get(i);
+        if (s != null) return s;
+        s = decode(i, natives);
+        if (s == null) throw new IllegalStateException("Story bundle refers to a scene not in code: " + id(i));
+        graph.link(s);
+        return loaded.compareAndSet(i, null, s) ? s : loaded.get(i);
+    }
+
+    /**
+     * Compares the bundle with what is registered on {@code engine} scene by
+     * scene: kind, title, targets, text, options and script code.
+     *
+     * @return one line per difference; empty if the bundle round-trips
+     */
+    public List<String> verify(GameEngine engine) {
+        SceneGraph graph = engine.freeze();
+        List<String> diffs = new ArrayList<>();
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < sceneCount; i++) index.put(id(i), i);
+        if (sceneCount != graph.size()) diffs.add("scene count " + sceneCount + " != " + graph.size());
+
+        for (int g = 0; g < graph.size(); g++) {
+            String id = graph.idOf(g);
+            Integer i = index.get(id);
+            if (i == null) {
+                diffs.add(id + ": missing from bundle");
+                continue;
+            }
+            Scene want = engine.getScene(id);
+            if (kindOf(want) != kind(i)) diffs.add(id + ": kind " + kind(i) + " != " + kindOf(want));
+            if (!want.getTitle().equals(string(field(i, 1)))) diffs.add(id + ": title differs");
+            if (!Objects.equals(want.getTargets(), targets(i))) {
+                diffs.add(id + ": targets differ");
+            }
+            if (kind(i) != kindOf(want) || kind(i) == NATIVE) continue;
+
+            Scene got = decode(i, null);
+            if (want instanceof DialogueScene) {
+                if (!((DialogueScene) want).getLines().equals(((MappedDialogue) got).lines())) diffs.add(id + ": lines differ");
+            } else if (want instanceof ChoiceScene) {
+                ChoiceScene w = (ChoiceScene) want, c = (ChoiceScene) got;
+                if (!w.getPrompt().equals(c.getPrompt()) || !w.getOptions().equals(c.getOptions())) {
+                    diffs.add(id + ": prompt or options differ");
+                }
+            } else {
+                ScriptScene w = (ScriptScene) want, c = (ScriptScene) got;
+                if (!Arrays.equals(w.code(), c.code()) || !Arrays.equals(w.consts(), c.consts())) diffs.add(id + ": script differs");
+            }
+        }
+        return diffs;
+    }
+
+    // --- reading ---
+
+    private int field(int scene, int f) { return buf.getInt(sceneTable + scene * 16 + f * 4); }
+
+    private int kind(int scene) { return field(scene, 2); }
+
+    private int data(int scene) { return field(scene, 3); }
+
+    private String id(int scene) { return string(field(scene, 0)); }
+
+    String string(int ref) {
+        int start = buf.getInt(stringOffsets + ref * 4);
+        int end = buf.getInt(stringOffsets + ref * 4 + 4);
+        byte[] b = new byte[end - start];
+        buf.get(pool + start, b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private String target(int scene) { return scene < 0 ? null : id(scene); }
+
+    /** Targets straight from the scene data, without building the scene. */
+    private List<String> targets(int i) {
+        int at = data(i);
+        List<String> t;
+        switch (kind(i)) {
+            case DIALOGUE:
+                return Collections.singletonList(target(buf.getInt(at)));
+            case CHOICE: {
+                int n = buf.getInt(at + 4);
+                t = new ArrayList<>(n);
+                for (int k = 0; k < n; k++) t.add(target(buf.getInt(at + 12 + k * 8)));
+                return t;
+            }
+            case SCRIPT: {
+                int n = buf.getInt(at);
+                t = new ArrayList<>(n);
+                for (int k = 0; k < n; k++) t.add(target(buf.getInt(at + 4 + k * 4)));
+                return t;
+            }
+            default:
+                return nativeTargets(i);
+        }
+    }
+
+    private List<String> nativeTargets(int i) {
+        int at = data(i);
+        int n = buf.getInt(at);
+        if (n < 0) return null;
+        List<String> t = new ArrayList<>(n);
+        for (int k = 0; k < n; k++) t.add(target(buf.getInt(at + 4 + k * 4)));
+        return t;
+    }
+
+    private Scene decode(int i, Function<String, Scene> natives) {
+        String id = id(i);
+        String title = string(field(i, 1));
+        int at = data(i);
+        switch (kind(i)) {
+            case DIALOGUE:
+                return new MappedDialogue(this, id, title, at);
+            case CHOICE: {
+                String prompt = string(buf.getInt(at));
+                int n = buf.getInt(at + 4);
+                Map<String, String> choices = new LinkedHashMap<>();
+                for (int k = 0; k < n; k++) {
+                    choices.put(string(buf.getInt(at + 8 + k * 8)), target(buf.getInt(at + 12 + k * 8)));
+                }
+                return new ChoiceScene(id, title, prompt, choices);
+            }
+            case SCRIPT: {
+                int n = buf.getInt(at);
+                List<String> outcomes = new ArrayList<>(n);
+                for (int k = 0; k < n; k++) outcomes.add(target(buf.getInt(at + 4 + k * 4)));
+                at += 4 + n * 4;
+                String[] consts = new String[buf.getInt(at)];
+                for (int k = 0; k < consts.length; k++) consts[k] = string(buf.getInt(at + 4 + k * 4));
+                at += 4 + consts.length * 4;
+                int[] code = new int[buf.getInt(at)];
+                for (int k = 0; k < code.length; k++) code[k] = buf.getInt(at + 4 + k * 4);
+                return new ScriptScene(id, title, outcomes, code, consts);
+            }
+            case NATIVE:
+                return natives == null ? null : natives.apply(id);
+            default:
+                throw new IllegalStateException("Bad scene kind " + kind(i) + " for " + id);
+        }
+    }
+
+    private static int kindOf(Scene s) {
+        if (s.getClass() == DialogueScene.class) return DIALOGUE;
+        if (s.getClass() == ChoiceScene.class) return CHOICE;
+        if (s instanceof ScriptScene) return SCRIPT;
+        return NATIVE;
+    }
+
+    /** Dialogue read straight from the mapping each time it plays. */
+    private static final class MappedDialogue extends Scene {
+        private final StoryBundle bundle;
+        private final int at; // next, line count, lines
+        private final String next;
+
+        MappedDialogue(StoryBundle bundle, String id, String title, int at) {
+            super(id, title);
+            this.bundle = bundle;
+            this.at = at;
+            this.next = bundle.target(bundle.buf.getInt(at));
+        }
+
+        @Override
+        public List<String> getTargets() { return Collections.singletonList(next); }
+
+        @Override
+        public String play(GameState state, Scanner in) {
+            SceneOutput out = state.getOut();
+            out.println("[" + getTitle() + "]");
+            int n = bundle.buf.getInt(at + 4);
+            for (int k = 0; k < n; k++) {
+                out.println(bundle.string(bundle.buf.getInt(at + 8 + k * 4)));
+                // small pause, played back by the session's Pacer
+                out.pause();
+            }
+            out.println();
+            return next;
+        }
+
+        List<String> lines() {
+            int n = bundle.buf.getInt(at + 4);
+            List<String> l = new ArrayList<>(n);
+            for (int k = 0; k < n; k++) l.add(bundle.string(bundle.buf.getInt(at + 8 + k * 4)));
+            return l;
+        }
+    }
+
+    // --- writing ---
+
+    /**
+     * Compiles every scene registered on {@code engine} (freezing it) into a
+     * bundle at {@code file}.
+     */
+    public static void write(GameEngine engine, Path file) throws IOException {
+        SceneGraph graph = engine.freeze();
+        int n = graph.size();
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        int[] table = new int[n * 4];
+        ByteArrayOutputStream dataBytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(dataBytes);
+        int dataStart = HEADER + n * 16;
+
+        for (int i = 0; i < n; i++) {
+            Scene s = engine.getScene(graph.idOf(i));
+            int kind = kindOf(s);
+            table[i * 4] = intern(strings, s.getId());
+            table[i * 4 + 1] = intern(strings, s.getTitle());
+            table[i * 4 + 2] = kind;
+            table[i * 4 + 3] = dataStart + data.size();
+            switch (kind) {
+                case DIALOGUE: {
+                    DialogueScene d = (DialogueScene) s;
+                    data.writeInt(graph.indexOf(d.getNextScene()));
+                    data.writeInt(d.getLines().size());
+                    for (String l : d.getLines()) data.writeInt(intern(strings, l));
+                    break;
+                }
+                case CHOICE: {
+                    ChoiceScene c = (ChoiceScene) s;
+                    data.writeInt(intern(strings, c.getPrompt()));
+                    data.writeInt(c.getChoiceCount());
+                    List<String> labels = c.getOptions();
+                    List<String> targets = c.getTargets();
+                    for (int k = 0; k < labels.size(); k++) {
+                        data.writeInt(intern(strings, labels.get(k)));
+                        data.writeInt(graph.indexOf(targets.get(k)));
+                    }
+                    break;
+                }
+                case SCRIPT: {
+                    ScriptScene sc = (ScriptScene) s;
+                    data.writeInt(sc.getTargets().size());
+                    for (String t : sc.getTargets()) data.writeInt(graph.indexOf(t));
+                    data.writeInt(sc.consts().length);
+                    for (String c : sc.consts()) data.writeInt(intern(strings, c));
+                    data.writeInt(sc.code().length);
+                    for (int w : sc.code()) data.writeInt(w);
+                    break;
+                }
+                default: {
+                    List<String> targets = s.getTargets();
+                    data.writeInt(targets == null ? -1 : targets.size());
+                    if (targets != null) for (String t : targets) data.writeInt(graph.indexOf(t));
+                }
+            }
+        }
+
+        ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+        int[] offsets = new int[strings.size() + 1];
+        int k = 0;
+        for (String s : strings.keySet()) {
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            poolBytes.write(b);
+            offsets[++k] = poolBytes.size();
+        }
+
+        int stringOffsets = dataStart + data.size();
+        int poolStart = stringOffsets + offsets.length * 4;
+        try (OutputStream fout = Files.newOutputStream(file);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fout))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(n);
+            out.writeInt(strings.size());
+            out.writeInt(stringOffsets);
+            out.writeInt(poolStart);
+            out.writeInt(HEADER);
+            out.writeInt(0); // reserved
+            for (int w : table) out.writeInt(w);
+            dataBytes.writeTo(out);
+            for (int o : offsets) out.writeInt(o);
+            poolBytes.writeTo(out);
+        }
+    }
+
+    private static int intern(Map<String, Integer> strings, String s) {
+        Integer i = strings.get(s);
+        if (i == null) {
+            i = strings.size();
+            strings.put(s, i);
+        }
+        return i;
+    }
+}
@@ -0,0 +1,129 @@
+package com.fractured.story;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fractured.core.Scene;
+
+/**
+ * Static checks over script scenes, run when the story index is rebuilt.
+ * Every path through every script is followed, so a mistake on a branch
+ * players rarely take is still caught:
+ *
+ * <ul>
+ * <li>a line announcing "(Sanity -2)" when that path changed sanity by
+ *     something else since the last announcement,</li>
+ * <li>a sanity change that no line announces before the scene ends,</li>
+ * <li>a single change bigger than a whole sanity bar,</li>
+ * <li>an item tested for or taken away that no scene ever gives.</li>
+ * </ul>
+ */
+final class StoryChecker {
+    /** Starting sanity; no single effect should move it by more than this. */
+    static final int FULL_SANITY = 100;
+
+    private static final Pattern ANNOUNCED = Pattern.compile("Sanity ([+-]) ?(\\d+)");
+
+    private StoryChecker() { }
+
+    /**
+     * @return one line per finding, prefixed with the scene id
+     */
+    static List<String> check(List<Scene> scenes) {
+        Set<String> findings = new LinkedHashSet<>();
+        Set<String> given = new LinkedHashSet<>();
+        Map<String, String> needed = new LinkedHashMap<>(); // item -> first scene needing it
+
+        for (Scene s : scenes) {
+            if (!(s instanceof ScriptScene)) continue;
+            ScriptScene sc = (ScriptScene) s;
+            int[] code = sc.code();
+            String[] consts = sc.consts();
+            for (int pc = 0; pc < code.length; pc += ScriptScene.WIDTH[code[pc]]) {
+                switch (code[pc]) {
+                    case ScriptScene.ADD:
+                        given.add(consts[code[pc + 1]]);
+                        break;
+                    case ScriptScene.REMOVE:
+                    case ScriptScene.IF_HAS:
+                    case ScriptScene.IF_LACKS:
+                        needed.putIfAbsent(consts[code[pc + 1]], s.getId());
+                        break;
+                    case ScriptScene.SANITY:
+                        if (Math.abs(code[pc + 1]) > FULL_SANITY) {
+                            findings.add(s.getId() + ": sanity " + signed(code[pc + 1]) + " is more than a whole sanity bar");
+                        }
+                        break;
+                    default:
+                }
+            }
+            walk(sc, 0, 0, new StringBuilder(), findings);
+        }
+
+        for (Map.Entry<String, String> e : needed.entrySet()) {
+            if (!given.contains(e.getKey())) {
+                findings.add(e.getValue() + ": uses item '" + e.getKey() + "' but no scene gives it");
+            }
+        }
+        return new ArrayList<>(findings);
+    }
+
+    /**
+     * Follows one path; {@code pending} is the sanity change not yet announced
+     * and {@code line} the text printed so far on the current output line.
+     * Scripts only jump forward, so every path ends.
+     */
+    private static void walk(ScriptScene s, int pc, int pending, StringBuilder line, Set<String> findings) {
+        int[] code = s.code();
+        String[] consts = s.consts();
+        while (pc < code.length) {
+            switch (code[pc]) {
+                case ScriptScene.PRINT:
+                    line.append(consts[code[pc + 1]]);
+                    break;
+                case ScriptScene.SAY:
+                    line.append(consts[code[pc + 1]]);
+                    Matcher m = ANNOUNCED.matcher(line);
+                    if (m.find()) {
+                        int said = Integer.parseInt(m.group(2)) * (m.group(1).equals("-") ? -1 : 1);
+                        if (said != pending) {
+                            findings.add(s.getId() + ": says 'Sanity " + signed(said) + "' but changes sanity by "
+                                    + signed(pending));
+                        }
+                        pending = 0;
+                    }
+                    line.setLength(0);
+                    break;
+                case ScriptScene.SANITY:
+                    pending += code[pc + 1];
+                    break;
+                case ScriptScene.IF_HAS:
+                case ScriptScene.IF_LACKS:
+                case ScriptScene.IF_SANITY_BELOW:
+                    walk(s, code[pc + 2], pending, new StringBuilder(line), findings);
+                    break;
+                case ScriptScene.IF_EMPTY:
+                    walk(s, code[pc + 1], pending, new StringBuilder(line), findings);
+                    break;
+                case ScriptScene.JUMP:
+                    pc = code[pc + 1];
+                    continue;
+                case ScriptScene.GOTO:
+                    if (pending != 0) {
+                        findings.add(s.getId() + ": changes sanity by " + signed(pending) + " without saying so");
+                    }
+                    return;
+                default:
+            }
+            pc += ScriptScene.WIDTH[code[pc]];
+        }
+    }
+
+    private static String signed(int n) { return n < 0 ? Integer.toString(n) : "+" + n; }
+}
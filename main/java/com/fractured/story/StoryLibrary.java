@@ -0,0 +1,262 @@
+package com.fractured.story;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fractured.core.GameEngine;
+import com.fractured.core.LazyScene;
+import com.fractured.core.Scene;
+import com.fractured.core.SceneGraph;
+
+/**
+ * Acts kept as story files (see {@link StoryParser} for the format) and
+ * loaded the first time a session reaches one of their scenes.
+ *
+ * At startup only the story index is read: which file holds which scene ids,
+ * their titles, and where each scene can lead. That is enough to register a
+ * {@link LazyScene} for every id and let the engine compile and validate
+ * the whole graph. An act is parsed when first needed, shared by every
+ * session from then on, and dropped again once no session has touched it
+ * for a while (see {@link #startEviction}).
+ *
+ * The index is generated from the act files by {@link #reindex}; an act
+ * that no longer matches it fails to load instead of misrouting players.
+ */
+public final class StoryLibrary implements AutoCloseable {
+    static final String INDEX = "index";
+    private static final String TITLE = " | ";
+    private static final long TOUCH_NANOS = TimeUnit.SECONDS.toNanos(1); // resolution of an act's last use
+
+    private final String base;
+    private final Map<String, Act> acts = new LinkedHashMap<>();
+    private final Map<String, List<String>> targets = new LinkedHashMap<>(); // scene id -> targets, from the index
+    private final Map<String, String> titles = new HashMap<>(); // scene id -> title, from the index
+    private final Map<String, Act> actOf = new HashMap<>();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private ScheduledExecutorService evictor;
+
+    private StoryLibrary(String base) {
+        this.base = base;
+    }
+
+    /**
+     * Reads the story index from the classpath folder {@code base}, e.g.
+     * "story". No act is loaded yet.
+     */
+    public static StoryLibrary open(String base) {
+        StoryLibrary lib = new StoryLibrary(base);
+        try (BufferedReader in = lib.reader(INDEX)) {
+            lib.readIndex(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read story index " + base + "/" + INDEX, e);
+        }
+        return lib;
+    }
+
+    private void readIndex(BufferedReader in) throws IOException {
+        Act act = null;
+        for (String l; (l = in.readLine()) != null; ) {
+            if (l.isBlank() || l.startsWith("#")) continue;
+            // ids never hold spaces, so the first " | " starts the title
+            int bar = l.indexOf(TITLE);
+            String[] w = (bar < 0 ? l : l.substring(0, bar)).trim().split("\\s+");
+            if (w[0].equals("act")) {
+                if (w.length != 3) throw new IllegalStateException("Bad story index line: " + l);
+                act = new Act(w[1], w[2]);
+                acts.put(act.name, act);
+                continue;
+            }
+            if (act == null) throw new IllegalStateException("Story index lists scenes before any act: " + l);
+            List<String> t = new ArrayList<>(w.length - 1);
+            for (int i = 1; i < w.length; i++) t.add(w[i].equals(StoryParser.END) ? null : w[i]);
+            if (targets.put(w[0], Collections.unmodifiableList(t)) != null) {
+                throw new IllegalStateException("Story index lists scene twice: " + w[0]);
+            }
+            if (bar >= 0) titles.put(w[0], l.substring(bar + TITLE.length()).trim());
+            actOf.put(w[0], act);
+            act.ids.add(w[0]);
+        }
+    }
+
+    /**
+     * Registers a lazy stand-in for every scene in the index.
+     */
+    public void registerAll(GameEngine engine) {
+        for (Map.Entry<String, List<String>> e : targets.entrySet()) {
+            engine.register(new LazyScene(e.getKey(), titles.get(e.getKey()), e.getValue(), actOf.get(e.getKey())));
+        }
+    }
+
+    /**
+     * Drops acts nobody has touched for {@code idle}, checking every half of
+     * that on a daemon thread.
+     */
+    public synchronized void startEviction(Duration idle) {
+        if (evictor != null) return;
+        long idleNanos = idle.toNanos();
+        evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "story-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1, idleNanos / 2);
+        evictor.scheduleAtFixedRate(() -> evictIdle(idleNanos), period, period, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Drops every loaded act not touched in the last {@code idleNanos}
+     * (give or take a second: use is only stamped once per second).
+     *
+     * @return how many acts were dropped
+     */
+    public int evictIdle(long idleNanos) {
+        long now = System.nanoTime();
+        int dropped = 0;
+        for (Act act : acts.values()) {
+            if (act.evictIfIdle(now, idleNanos)) dropped++;
+        }
+        return dropped;
+    }
+
+    public int actCount() { return acts.size(); }
+
+    public int loadedActs() {
+        int n = 0;
+        for (Act act : acts.values()) {
+            if (act.scenes != null) n++;
+        }
+        return n;
+    }
+
+    /** Act files parsed so far, counting reloads after eviction. */
+    public long loads() { return loads.sum(); }
+
+    public long evictions() { return evictions.sum(); }
+
+    @Override
+    public synchronized void close() {
+        if (evictor != null) evictor.shutdownNow();
+        evictor = null;
+    }
+
+    private BufferedReader reader(String name) {
+        InputStream in = StoryLibrary.class.getClassLoader().getResourceAsStream(base + "/" + name);
+        if (in == null) throw new IllegalStateException("Missing story resource: " + base + "/" + name);
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Rewrites {@code dir/index} from the act files it lists and runs the
+     * {@link StoryChecker} over every script. Run after editing a story file
+     * (Main --reindex-story).
+     *
+     * @return what the checker found, one line each
+     */
+    public static List<String> reindex(Path dir) throws IOException {
+        List<Scene> all = new ArrayList<>();
+        List<String> out = new ArrayList<>();
+        out.add("# Generated from the act files by StoryLibrary.reindex, do not edit by hand.");
+        out.add("# act <name> <file>, then one line per scene: <id> <targets...> | <title> (end = story ends)");
+        for (String l : Files.readAllLines(dir.resolve(INDEX), StandardCharsets.UTF_8)) {
+            String[] w = l.trim().split("\\s+");
+            if (!w[0].equals("act")) continue;
+            out.add(l.trim());
+            List<Scene> scenes;
+            try (BufferedReader in = Files.newBufferedReader(dir.resolve(w[2]), StandardCharsets.UTF_8)) {
+                scenes = StoryParser.parse(w[2], in);
+            }
+            all.addAll(scenes);
+            for (Scene s : scenes) {
+                StringBuilder sb = new StringBuilder(s.getId());
+                for (String t : s.getTargets()) sb.append(' ').append(t == null ? StoryParser.END : t);
+                out.add(sb.append(TITLE).append(s.getTitle()).toString());
+            }
+        }
+        Files.write(dir.resolve(INDEX), out, StandardCharsets.UTF_8);
+        return StoryChecker.check(all);
+    }
+
+    /** One act file; loaded on first use and shared until evicted. */
+    private final class Act implements LazyScene.Source {
+        final String name;
+        final String file;
+        final List<String> ids = new ArrayList<>();
+        volatile Map<String, Scene> scenes; // null until loaded, and again once evicted
+        volatile long lastUsed;
+
+        Act(String name, String file) {
+            this.name = name;
+            this.file = file;
+        }
+
+        @Override
+        public Scene load(String id, SceneGraph graph) {
+            Map<String, Scene> m = scenes;
+            if (m == null) {
+                synchronized (this) {
+                    m = scenes;
+                    if (m == null) {
+                        m = parse(graph);
+                        scenes = m;
+                        loads.increment();
+                    }
+                }
+            }
+            // eviction works in minutes, so skip the shared write unless the stamp is a second stale
+            long now = System.nanoTime();
+            if (now - lastUsed > TOUCH_NANOS) lastUsed = now;
+            return m.get(id);
+        }
+
+        synchronized boolean evictIfIdle(long now, long idleNanos) {
+            if (scenes == null || now - lastUsed < idleNanos) return false;
+            scenes = null;
+            evictions.increment();
+            return true;
+        }
+
+        private Map<String, Scene> parse(SceneGraph graph) {
+            List<Scene> parsed;
+            try (BufferedReader in = reader(file)) {
+                parsed = StoryParser.parse(file, in);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read story file " + base + "/" + file, e);
+            }
+            Map<String, Scene> m = new HashMap<>(parsed.size() * 2);
+            for (Scene s : parsed) {
+                String title = titles.get(s.getId());
+                if (!s.getTargets().equals(targets.get(s.getId())) || actOf.get(s.getId()) != this
+                        || (title != null && !title.equals(s.getTitle()))) {
+                    throw new IllegalStateException("Story index is out of date for " + s.getId() + " in " + file
+                            + ", run --reindex-story");
+                }
+                graph.link(s);
+                m.put(s.getId(), s);
+            }
+            if (m.size() != ids.size()) {
+                List<String> missing = new ArrayList<>(ids);
+                missing.removeAll(m.keySet());
+                throw new IllegalStateException("Story index lists scenes missing from " + file + ": " + missing);
+            }
+            return m;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.fractured.story;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fractured.core.ChoiceScene;
+import com.fractured.core.DialogueScene;
+import com.fractured.core.Scene;
+
+/**
+ * Reads one act file. Scenes start with a header line and run until the
+ * next one; blank lines between scenes and lines starting with '#' are
+ * skipped. A target of "end" ends the story.
+ *
+ * <pre>
+ * &#64;dialogue act1_intro | Black Room
+ * You wake up in a small dark room.
+ * -&gt; act1_choice1
+ *
+ * &#64;choice act1_choice1 | First Choice
+ * ? What do you do?
+ * * Search the room -&gt; act1_search
+ * * Call out for help -&gt; act1_call
+ *
+ * &#64;script act3_gate_check | Gatecheck
+ * if has brass_key
+ *     remove brass_key
+ *     say [You use the brass key. It fits.]
+ *     -&gt; act3_gate_open
+ * else
+ *     sanity -10
+ *     say (Sanity -10). Current sanity: {sanity}
+ *     -&gt; act3_gate_locked
+ * end
+ * </pre>
+ *
+ * Dialogue lines are printed as written; start one with '\' to print a line
+ * that would otherwise read as a directive. Script statements are
+ * {@code say} (with {sanity} and {inventory} filled in), {@code sanity n},
+ * {@code add item}, {@code remove item} and {@code -> target}; tests are
+ * {@code has a or b}, {@code lacks a or b}, {@code sanity < n} and
+ * {@code empty} (nothing carried).
+ */
+final class StoryParser {
+    static final String END = "end";
+
+    private final String source;
+    private final List<String> lines = new ArrayList<>();
+    private int pos;
+
+    private StoryParser(String source, BufferedReader in) throws IOException {
+        this.source = source;
+        for (String l; (l = in.readLine()) != null; ) lines.add(l);
+    }
+
+    /**
+     * @throws IllegalStateException on any syntax error, naming the file and line
+     */
+    static List<Scene> parse(String source, BufferedReader in) throws IOException {
+        return new StoryParser(source, in).scenes();
+    }
+
+    private List<Scene> scenes() {
+        List<Scene> scenes = new ArrayList<>();
+        while (skipBlank()) {
+            String header = lines.get(pos++);
+            if (!header.startsWith("@")) throw error(pos, "expected a scene header, got: " + header);
+            int sp = header.indexOf(' ');
+            int bar = header.indexOf(" | ");
+            if (sp < 0 || bar < sp) throw error(pos, "expected '@kind id | title'");
+            String kind = header.substring(1, sp);
+            String id = header.substring(sp + 1, bar).trim();
+            String title = header.substring(bar + 3).trim();
+            switch (kind) {
+                case "dialogue": scenes.add(dialogue(id, title)); break;
+                case "choice": scenes.add(choice(id, title)); break;
+                case "script": scenes.add(script(id, title)); break;
+                default: throw error(pos, "unknown scene kind: " + kind);
+            }
+        }
+        return scenes;
+    }
+
+    private Scene dialogue(String id, String title) {
+        List<String> text = new ArrayList<>();
+        while (pos < lines.size()) {
+            String l = lines.get(pos++);
+            if (l.startsWith("->")) return new DialogueScene(id, title, text.toArray(new String[0]), target(l.substring(2)));
+            if (l.startsWith("@")) break;
+            if (l.startsWith("#")) continue;
+            text.add(l.startsWith("\\") ? l.substring(1) : l);
+        }
+        throw error(pos, "dialogue " + id + " has no '-> target' line");
+    }
+
+    private Scene choice(String id, String title) {
+        String prompt = null;
+        Map<String, String> choices = new LinkedHashMap<>();
+        while (pos < lines.size()) {
+            String l = lines.get(pos);
+            if (l.isBlank() || l.startsWith("@")) break;
+            pos++;
+            if (l.startsWith("#")) continue;
+            if (l.startsWith("? ")) {
+                prompt = l.substring(2);
+            } else if (l.startsWith("* ")) {
+                int arrow = l.lastIndexOf(" -> ");
+                if (arrow < 0) throw error(pos, "expected '* label -> target'");
+                String label = l.substring(2, arrow);
+                if (choices.put(label, target(l.substring(arrow + 4))) != null) {
+                    throw error(pos, "duplicate option: " + label);
+                }
+            } else {
+                throw error(pos, "expected '? prompt' or '* label -> target'");
+            }
+        }
+        if (prompt == null || choices.isEmpty()) throw error(pos, "choice " + id + " needs a prompt and at least one option");
+        return new ChoiceScene(id, title, prompt, choices);
+    }
+
+    private Scene script(String id, String title) {
+        Script sc = new Script();
+        if (!block(sc, false)) throw error(pos, "script " + id + " can finish without a '-> target'");
+        return new ScriptScene(id, title, new ArrayList<>(sc.outcomes.keySet()), sc.code(),
+                sc.consts.keySet().toArray(new String[0]));
+    }
+
+    /**
+     * Compiles statements up to the end of the scene, or up to "else"/"end"
+     * when nested.
+     *
+     * @return whether every path through the block ends in a "->"
+     */
+    private boolean block(Script sc, boolean nested) {
+        boolean ends = false;
+        while (pos < lines.size()) {
+            String l = lines.get(pos).trim();
+            if (l.startsWith("@") || (!nested && l.isEmpty())) break;
+            if (nested && (l.equals("else") || l.equals("end"))) break;
+            pos++;
+            if (l.isEmpty() || l.startsWith("#")) continue;
+            if (ends) throw error(pos, "unreachable statement after '->'");
+
+            if (l.startsWith("->")) {
+                sc.emit(ScriptScene.GOTO, sc.outcome(target(l.substring(2))));
+                ends = true;
+            } else if (l.startsWith("say ")) {
+                say(l.substring(4), sc);
+            } else if (l.startsWith("sanity ")) {
+                sc.emit(ScriptScene.SANITY, number(l.substring(7)));
+            } else if (l.startsWith("add ")) {
+                sc.emit(ScriptScene.ADD, sc.constant(word(l.substring(4))));
+            } else if (l.startsWith("remove ")) {
+                sc.emit(ScriptScene.REMOVE, sc.constant(word(l.substring(7))));
+            } else if (l.startsWith("if ")) {
+                ends = condition(l.substring(3).trim(), sc);
+            } else {
+                throw error(pos, "unknown statement: " + l);
+            }
+        }
+        return ends;
+    }
+
+    /** Splits a line around {sanity} and {inventory} into print instructions. */
+    private static void say(String text, Script sc) {
+        int from = 0;
+        while (true) {
+            int s = text.indexOf("{sanity}", from);
+            int i = text.indexOf("{inventory}", from);
+            int at = s < 0 ? i : i < 0 ? s : Math.min(s, i);
+            if (at < 0) break;
+            if (at > from) sc.emit(ScriptScene.PRINT, sc.constant(text.substring(from, at)));
+            sc.emit(at == s ? ScriptScene.PRINT_SANITY : ScriptScene.PRINT_INVENTORY);
+            from = at + (at == s ? "{sanity}".length() : "{inventory}".length());
+        }
+        sc.emit(ScriptScene.SAY, sc.constant(text.substring(from)));
+    }
+
+    /** Compiles an if/else/end; returns whether both branches end in a "->". */
+    private boolean condition(String test, Script sc) {
+        int line = pos;
+        int elseOperand; // where the "test failed" jump target goes
+        if (test.startsWith("has ") || test.startsWith("lacks ")) {
+            boolean has = test.startsWith("has ");
+            String[] items = test.substring(has ? 4 : 6).split(" or ");
+            // every item but the last jumps straight into the branch when it matches
+            int[] shortcuts = new int[items.length - 1];
+            for (int k = 0; k < shortcuts.length; k++) {
+                shortcuts[k] = sc.emit(has ? ScriptScene.IF_LACKS : ScriptScene.IF_HAS, sc.constant(word(items[k])), 0) + 2;
+            }
+            elseOperand = sc.emit(has ? ScriptScene.IF_HAS : ScriptScene.IF_LACKS,
+                    sc.constant(word(items[items.length - 1])), 0) + 2;
+            for (int at : shortcuts) sc.patch(at, sc.size());
+        } else if (test.startsWith("sanity < ")) {
+            elseOperand = sc.emit(ScriptScene.IF_SANITY_BELOW, number(test.substring(9)), 0) + 2;
+        } else if (test.equals("empty")) {
+            elseOperand = sc.emit(ScriptScene.IF_EMPTY, 0) + 1;
+        } else {
+            throw error(line, "expected 'has items', 'lacks items', 'sanity < n' or 'empty'");
+        }
+        boolean thenEnds = block(sc, true);
+        boolean elseEnds = false;
+        if (pos < lines.size() && lines.get(pos).trim().equals("else")) {
+            pos++;
+            int jump = thenEnds ? -1 : sc.emit(ScriptScene.JUMP, 0);
+            sc.patch(elseOperand, sc.size());
+            elseEnds = block(sc, true);
+            if (jump >= 0) sc.patch(jump + 1, sc.size());
+        } else {
+            sc.patch(elseOperand, sc.size());
+        }
+        if (pos >= lines.size() || !lines.get(pos).trim().equals("end")) throw error(line, "'if' without 'end'");
+        pos++;
+        return thenEnds && elseEnds;
+    }
+
+    /** Code and tables of the script being compiled. */
+    private static final class Script {
+        final Map<String, Integer> consts = new LinkedHashMap<>();
+        final Map<String, Integer> outcomes = new LinkedHashMap<>(); // may hold null: the story ends
+        private int[] code = new int[16];
+        private int size;
+
+        /** Appends an instruction and returns its pc. */
+        int emit(int... words) {
+            if (size + words.length > code.length) code = Arrays.copyOf(code, Math.max(code.length * 2, size + words.length));
+            System.arraycopy(words, 0, code, size, words.length);
+            size += words.length;
+            return size - words.length;
+        }
+
+        void patch(int at, int value) { code[at] = value; }
+
+        int size() { return size; }
+
+        int constant(String s) {
+            Integer i = consts.get(s);
+            if (i == null) {
+                i = consts.size();
+                consts.put(s, i);
+            }
+            return i;
+        }
+
+        int outcome(String target) {
+            Integer i = outcomes.get(target);
+            if (i == null) {
+                i = outcomes.size();
+                outcomes.put(target, i);
+            }
+            return i;
+        }
+
+        int[] code() { return Arrays.copyOf(code, size); }
+    }
+
+    private boolean skipBlank() {
+        while (pos < lines.size() && (lines.get(pos).isBlank() || lines.get(pos).startsWith("#"))) pos++;
+        return pos < lines.size();
+    }
+
+    private String target(String s) {
+        String t = word(s);
+        return t.equals(END) ? null : t;
+    }
+
+    private String word(String s) {
+        String w = s.trim();
+        if (w.isEmpty() || w.indexOf(' ') >= 0) throw error(pos, "expected a single word, got: '" + w + "'");
+        return w;
+    }
+
+    private int number(String s) {
+        try {
+            return Integer.parseInt(s.trim());
+        } catch (NumberFormatException e) {
+            throw error(pos, "expected a number, got: '" + s.trim() + "'");
+        }
+    }
+
+    private IllegalStateException error(int line, String msg) {
+        return new IllegalStateException(source + ":" + line + ": " + msg);
+    }
+}
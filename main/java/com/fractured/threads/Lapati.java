@@ -1,16 +1,30 @@
 package com.fractured.threads;
 
+import java.io.PrintStream;
+
 import com.fractured.core.GameState;
 import com.fractured.model.Player;
 
 public class Lapati implements Runnable {
     private final GameState state;
+    private final PrintStream out; // null -> the state's own output buffer
     private volatile boolean running = true;
 
-    public Lapati(GameState state) { this.state = state; }
+    public Lapati(GameState state) { this(state, null); }
+
+    /**
+     * Whispers straight to {@code out}, so they show up while the player is
+     * still thinking rather than with the next step's output.
+     */
+    public Lapati(GameState state, PrintStream out) {
+        this.state = state;
+        this.out = out;
+    }
 
     public void stop() { running = false; }
 
+    public boolean isRunning() { return running; }
+
     @Override
     public void run() {
         while (running) {
@@ -20,14 +34,21 @@ public class Lapati implements Runnable {
                 Thread.currentThread().interrupt();
                 break;
             }
-            synchronized (state) {
-                Player p = state.getPlayer();
-                if (p == null) continue;
-                // whisper effect: lower sanity by 1-5 randomly
-                int drop = 1 + (int)(Math.random()*5);
-                p.modifySanity(-drop);
-                System.out.println("[Lapati whispers. Sanity -" + drop + ". Current sanity: " + p.getSanity() + "]");
-            }
+            whisper();
         }
     }
+
+    /**
+     * One whisper tick. Hosted sessions call this from a shared scheduler
+     * instead of parking a thread per player in {@link #run()}.
+     */
+    public void whisper() {
+        if (!running) return;
+        Player p = state.getPlayer();
+        if (p == null) return;
+        // whisper effect: lower sanity by 1-5 randomly; no lock, Player updates it atomically
+        int drop = 1 + (int)(Math.random()*5);
+        int now = p.modifySanity(-drop);
+        (out != null ? out : state.getOut()).println("[Lapati whispers. Sanity -" + drop + ". Current sanity: " + now + "]");
+    }
 }
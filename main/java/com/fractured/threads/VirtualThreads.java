@@ -0,0 +1,43 @@
+package com.fractured.threads;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Hands out a thread-per-task executor backed by virtual threads when the
+ * running JVM has them (Java 21+), and a cached platform pool otherwise.
+ * Looked up reflectively so the project still compiles for Java 17.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() { }
+
+    public static boolean available() {
+        return factoryMethod() != null;
+    }
+
+    public static ExecutorService newPerTaskExecutor() {
+        Method m = factoryMethod();
+        if (m != null) {
+            try {
+                return (ExecutorService) m.invoke(null);
+            } catch (ReflectiveOperationException ignored) {
+                // fall through to platform threads
+            }
+        }
+        return Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "fractured-session");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static Method factoryMethod() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.fractured.ui;
+
+import java.io.PrintStream;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Scanner;
+
+import com.fractured.core.GameEngine;
+import com.fractured.core.GameState;
+import com.fractured.db.SaveDAO;
+import com.fractured.db.SaveEntry;
+import com.fractured.db.SaveJournal;
+import com.fractured.model.Inventory;
+
+/**
+ * "Load game" menu shown before the story starts, a page of saves at a
+ * time: slot, scene title, sanity and what the player was carrying.
+ *
+ * Rows in the {@link SaveJournal#SLOT} slot are only snapshots of the
+ * journal, behind its later events. With the journal on, picking one loads
+ * the journal's latest state instead; with it off they are not listed.
+ */
+public class LoadMenu {
+    public static final int PAGE_SIZE = 9;
+    private static final int ITEMS_SHOWN = 3;
+
+    private final SaveDAO dao;
+    private final GameEngine engine; // for scene titles
+    private final SaveJournal journal; // null when journalling is off
+    private final Scanner in;
+    private final PrintStream out;
+
+    public LoadMenu(SaveDAO dao, GameEngine engine, Scanner in, PrintStream out) {
+        this(dao, engine, null, in, out);
+    }
+
+    public LoadMenu(SaveDAO dao, GameEngine engine, SaveJournal journal, Scanner in, PrintStream out) {
+        this.dao = dao;
+        this.engine = engine;
+        this.journal = journal;
+        this.in = in;
+        this.out = out;
+    }
+
+    /**
+     * Lets the player pick one of their saves. Returns the chosen state, or
+     * null for a new game (also when they have no saves at all).
+     */
+    public GameState choose(String playerName) throws SQLException {
+        String skip = journal == null ? SaveJournal.SLOT : null;
+        SaveDAO.Page page = dao.listSaves(playerName, null, PAGE_SIZE, skip);
+        if (page.isEmpty()) return null;
+        int shownBefore = 0;
+        while (true) {
+            List<SaveEntry> entries = page.getEntries();
+            out.println("Saved games for " + playerName + ":");
+            for (int i = 0; i < entries.size(); i++) {
+                out.println("  " + (i + 1) + ") " + describe(entries.get(i)));
+            }
+            if (page.hasMore()) out.println("  m) More saves");
+            out.println("  Enter) New game");
+            out.print("> ");
+            if (!in.hasNextLine()) return null;
+            String line = in.nextLine().trim();
+            if (line.isEmpty()) return null;
+            if (line.equalsIgnoreCase("m") && page.hasMore()) {
+                shownBefore += entries.size();
+                page = dao.listSaves(playerName, page.last(), PAGE_SIZE, skip);
+                continue;
+            }
+            try {
+                int pick = Integer.parseInt(line);
+                if (pick >= 1 && pick <= entries.size()) {
+                    SaveEntry e = entries.get(pick - 1);
+                    out.println("Loading save " + (shownBefore + pick) + " (" + e.getSlot() + ").");
+                    if (journal != null && SaveJournal.SLOT.equals(e.getSlot())) {
+                        // the snapshot plus every event journalled after it
+                        GameState latest = journal.restore(playerName);
+                        if (latest != null) return latest;
+                    }
+                    return e.getState();
+                }
+            } catch (NumberFormatException ignored) {
+                // asked again below
+            }
+            out.println("Pick a number from the list, m for more, or press Enter for a new game.");
+        }
+    }
+
+    private String describe(SaveEntry e) throws SQLException {
+        return "[" + e.getSlot() + "] " + title(e.getScene()) + " - sanity " + e.getSanity()
+                + ", " + items(e.getInventory()) + " - " + shortTime(e.getCreatedAt());
+    }
+
+    // from the story index, so listing saves loads no act
+    private String title(String sceneId) {
+        if (sceneId == null) return "The end";
+        String title = engine.sceneTitle(sceneId);
+        return title != null ? title : sceneId;
+    }
+
+    // "torch, note (+2 more)"
+    private static String items(Inventory inv) {
+        if (inv.size() == 0) return "empty-handed";
+        List<String> all = inv.list();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < Math.min(ITEMS_SHOWN, all.size()); i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(all.get(i));
+        }
+        if (all.size() > ITEMS_SHOWN) sb.append(" (+").append(all.size() - ITEMS_SHOWN).append(" more)");
+        return sb.toString();
+    }
+
+    // seconds and milliseconds are noise in a menu
+    private static String shortTime(String createdAt) {
+        return createdAt == null || createdAt.length() < 16 ? String.valueOf(createdAt) : createdAt.substring(0, 16);
+    }
+}
@@ -1,12 +1,14 @@
 package com.fractured.ui;
 
 import com.fractured.model.Player;
+import java.io.PrintStream;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class SanityDisplayController {
 
     private final Player player;
+    private final PrintStream out; // the session's own output, not the console's
     private final AtomicInteger lastDisplayedSanity = new AtomicInteger(Integer.MIN_VALUE);
     private final AtomicLong lastChangeTime = new AtomicLong(0L);
     private volatile boolean visible = false;
@@ -14,7 +16,12 @@ public class SanityDisplayController {
     private final long displayDurationMs = 3000; // 3 seconds
 
     public SanityDisplayController(Player p) {
+        this(p, System.out);
+    }
+
+    public SanityDisplayController(Player p, PrintStream out) {
         this.player = p;
+        this.out = out;
 
         // When sanity changes, mark time & make visible (called from whichever thread modifies sanity)
         p.setSanityChangeListener(() -> {
@@ -44,10 +51,10 @@ public class SanityDisplayController {
 
     private void showSanityPopup(int s) {
         // replace with your UI rendering code later
-        System.out.println("[Sanity] " + s);
+        out.println("[Sanity] " + s);
     }
 
     private void hideSanityPopup() {
-        System.out.println("[Sanity popup hidden]");
+        out.println("[Sanity popup hidden]");
     }
 }